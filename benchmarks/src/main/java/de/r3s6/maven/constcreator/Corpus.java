@@ -0,0 +1,124 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates synthetic properties for the benchmarks.
+ * <p>
+ * The corpus is created with a fixed seed, so every run uses the same data.
+ *
+ * @author Ralf Schandl
+ */
+final class Corpus {
+
+    private static final String[] ASCII_WORDS = { "message", "error", "label", "title", "button", "tooltip",
+        "dialog", "user", "account", "settings", "invalidInput", "HTTP_STATUS", "save-as", "x" };
+
+    private static final String[] NON_ASCII_WORDS = { "größe", "straße", "ключ", "сообщение", "λέξη", "café",
+        "naïve", "Ärger", "über" };
+
+    private static final String VALUE_CHARS = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789"
+            + " <b>&amp;</b> {0} äöü € \"quoted\"";
+
+    private static final int SHORT_VALUE_LENGTH = 30;
+
+    private static final int LONG_VALUE_LENGTH = 2000;
+
+    private static final long SEED = 4711;
+
+    private Corpus() {
+        // Nothing to instantiate.
+    }
+
+    /**
+     * Creates properties with the given number of keys.
+     *
+     * @param count      number of keys
+     * @param kind       kind of keys
+     * @param longValues whether to create long values
+     * @return the properties in insertion order
+     */
+    static Map<String, String> properties(final int count, final KeyKind kind, final boolean longValues) {
+        final Random random = new Random(SEED);
+        final String[] words = kind == KeyKind.ASCII ? ASCII_WORDS : NON_ASCII_WORDS;
+        final int valueLength = longValues ? LONG_VALUE_LENGTH : SHORT_VALUE_LENGTH;
+
+        final Map<String, String> props = new LinkedHashMap<>();
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.setLength(0);
+            final int parts = 2 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                sb.append(words[random.nextInt(words.length)]).append('.');
+            }
+            sb.append(ASCII_WORDS[random.nextInt(ASCII_WORDS.length)]).append(i);
+            final String key = sb.toString();
+
+            sb.setLength(0);
+            for (int c = 0; c < valueLength; c++) {
+                sb.append(VALUE_CHARS.charAt(random.nextInt(VALUE_CHARS.length())));
+            }
+            props.put(key, sb.toString());
+        }
+        return props;
+    }
+
+    /**
+     * Writes the properties to a file in the format read by
+     * {@code Properties.load(InputStream)}.
+     *
+     * @param props the properties
+     * @param file  the file to write
+     * @throws IOException if writing fails
+     */
+    static void write(final Map<String, String> props, final Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1))) {
+            out.write("# Generated benchmark corpus\n");
+            for (final Map.Entry<String, String> entry : props.entrySet()) {
+                out.write(escape(entry.getKey(), true));
+                out.write('=');
+                out.write(escape(entry.getValue(), false));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static String escape(final String text, final boolean isKey) {
+        final StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else if (c == '\\' || "=:#!".indexOf(c) >= 0 || isKey && c == ' ' || i == 0 && c == ' ') {
+                sb.append('\\').append(c);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
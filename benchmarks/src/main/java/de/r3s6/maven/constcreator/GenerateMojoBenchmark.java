@@ -0,0 +1,175 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.monitor.logging.DefaultLog;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+/**
+ * End-to-end benchmark of the goal {@code generate} like in a command line
+ * build: scanning the resource directory, reading the properties files,
+ * rendering and writing the Java files.
+ * <p>
+ * The generated Java files are deleted before every invocation. With
+ * {@code incremental=true} the manifest of the previous invocation is kept, so
+ * the up-to-date check is measured together with the generation of the deleted
+ * files.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateMojoBenchmark {
+
+    @Param({ "1", "100" })
+    private int fileCount;
+
+    @Param({ "10", "1000", "100000" })
+    private int keysPerFile;
+
+    @Param({ "ASCII", "NON_ASCII" })
+    private KeyKind keyKind;
+
+    @Param({ "keys", "values" })
+    private String template;
+
+    @Param({ "false", "true" })
+    private boolean parallel;
+
+    private Path projectDir;
+
+    private File resourceDir;
+
+    private File outputDir;
+
+    private MavenProject project;
+
+    @Setup
+    public void setup() throws IOException {
+        projectDir = Files.createTempDirectory("benchmark-project");
+        resourceDir = projectDir.resolve("src/main/resources").toFile();
+        outputDir = projectDir.resolve("target/generated-sources/properties").toFile();
+        for (int i = 0; i < fileCount; i++) {
+            Corpus.write(Corpus.properties(keysPerFile, keyKind, false),
+                    resourceDir.toPath().resolve("messages" + i + ".properties"));
+        }
+
+        project = new MavenProject();
+        project.setFile(projectDir.resolve("pom.xml").toFile());
+    }
+
+    @Setup(Level.Invocation)
+    public void deleteGeneratedFiles() throws IOException {
+        deleteRecursive(outputDir.toPath());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        deleteRecursive(projectDir);
+    }
+
+    @Benchmark
+    public void generate() throws MojoExecutionException, MojoFailureException {
+        createMojo(false).execute();
+    }
+
+    @Benchmark
+    public void generateIncremental() throws MojoExecutionException, MojoFailureException {
+        createMojo(true).execute();
+    }
+
+    private GenerateMojo createMojo(final boolean incremental) {
+        final GenerateMojo mojo = new GenerateMojo();
+        mojo.setLog(new DefaultLog(new ConsoleLogger(Logger.LEVEL_ERROR, "generate")));
+        inject(mojo, "project", project);
+        inject(mojo, "buildContext", new DefaultBuildContext());
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "includes", new String[] { "*.properties" });
+        inject(mojo, "outputDir", outputDir);
+        inject(mojo, "sourceEncoding", "UTF-8");
+        inject(mojo, "basePackage", "de.r3s6.bench");
+        inject(mojo, "classNameSuffix", "");
+        inject(mojo, "template", template);
+        inject(mojo, "templateOptions", new HashMap<String, String>());
+        inject(mojo, "incremental", incremental);
+        inject(mojo, "stateDir", projectDir.resolve("target/prop-constants-state").toFile());
+        inject(mojo, "executionId", "benchmark");
+        inject(mojo, "parallel", parallel);
+        return mojo;
+    }
+
+    private static void inject(final Object target, final String fieldName, final Object value) {
+        try {
+            final Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't set field " + fieldName, e);
+        }
+    }
+
+    private static void deleteRecursive(final Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path d, final IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
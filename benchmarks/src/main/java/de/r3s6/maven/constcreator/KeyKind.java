@@ -0,0 +1,28 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Kind of keys in the benchmark corpus.
+ *
+ * @author Ralf Schandl
+ */
+public enum KeyKind {
+    /** Keys with ASCII characters only. */
+    ASCII,
+    /** Keys with umlauts, cyrillic and greek characters. */
+    NON_ASCII
+}
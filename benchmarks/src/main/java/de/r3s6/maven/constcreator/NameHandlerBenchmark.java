@@ -0,0 +1,67 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the creation of Java names from property keys.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameHandlerBenchmark {
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int keyCount;
+
+    @Param({ "ASCII", "NON_ASCII" })
+    private KeyKind keyKind;
+
+    private List<String> keys;
+
+    @Setup
+    public void setup() {
+        keys = new ArrayList<>(Corpus.properties(keyCount, keyKind, false).keySet());
+    }
+
+    @Benchmark
+    public void createJavaNames(final Blackhole bh) {
+        for (final String key : keys) {
+            bh.consume(NameHandler.createJavaNames(key));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the construction of {@link PropEntry} objects and the access to
+ * the derived fields used by the templates {@code keys} and {@code values}.
+ * <p>
+ * The derived fields are created on first access, so run with {@code -prof gc}
+ * to compare the allocation of the model with and without them.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropEntryBenchmark {
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int keyCount;
+
+    @Param({ "ASCII", "NON_ASCII" })
+    private KeyKind keyKind;
+
+    @Param({ "false", "true" })
+    private boolean longValues;
+
+    private List<Map.Entry<String, String>> properties;
+
+    @Setup
+    public void setup() {
+        properties = new ArrayList<>(Corpus.properties(keyCount, keyKind, longValues).entrySet());
+    }
+
+    @Benchmark
+    public void createPropEntries(final Blackhole bh) {
+        for (final Map.Entry<String, String> prop : properties) {
+            bh.consume(new PropEntry(prop.getKey(), prop.getValue()));
+        }
+    }
+
+    @Benchmark
+    public void createPropEntriesForTemplate(final Blackhole bh) {
+        for (final Map.Entry<String, String> prop : properties) {
+            final PropEntry entry = new PropEntry(prop.getKey(), prop.getValue());
+            bh.consume(entry.getConstantName());
+            bh.consume(entry.getJavadocKey());
+            bh.consume(entry.getJavadocValue());
+        }
+    }
+}
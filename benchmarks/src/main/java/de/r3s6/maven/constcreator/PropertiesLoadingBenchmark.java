@@ -0,0 +1,93 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks reading a properties file with {@link OrderedProperties} and with
+ * {@link PropertiesReader}.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertiesLoadingBenchmark {
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int keyCount;
+
+    @Param({ "ASCII", "NON_ASCII" })
+    private KeyKind keyKind;
+
+    @Param({ "false", "true" })
+    private boolean longValues;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("benchmark", ".properties");
+        Corpus.write(Corpus.properties(keyCount, keyKind, longValues), file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Properties orderedProperties() throws IOException {
+        final Properties props = new OrderedProperties();
+        try (InputStream is = Files.newInputStream(file)) {
+            props.load(is);
+        }
+        return props;
+    }
+
+    @Benchmark
+    public void propertiesReader(final Blackhole bh) throws IOException {
+        try (PropertiesReader reader = new PropertiesReader(file)) {
+            while (reader.next()) {
+                bh.consume(reader.getKey());
+                bh.consume(reader.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks scanning a resource tree with the plexus {@link DirectoryScanner}
+ * (used by the {@code BuildContext} on the command line) and with the
+ * {@link ResourceScanner}.
+ * <p>
+ * The tree has {@code fileCount} files, spread over directories with 100 files
+ * each. Half of the directories are below {@code static/}, that is excluded.
+ * Every tenth file is a properties file.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceScannerBenchmark {
+
+    private static final int FILES_PER_DIR = 100;
+
+    private static final String[] INCLUDES = { "**/*.properties" };
+
+    private static final String[] EXCLUDES = { "static/**" };
+
+    @Param({ "1000", "100000" })
+    private int fileCount;
+
+    private Path resourceDir;
+
+    @Setup
+    public void setup() throws IOException {
+        resourceDir = Files.createTempDirectory("benchmark-resources");
+        for (int i = 0; i < fileCount; i++) {
+            final int dir = i / FILES_PER_DIR;
+            final String prefix = dir % 2 == 0 ? "i18n/module" : "static/module";
+            final String name = i % 10 == 0 ? "messages" + i + ".properties" : "image" + i + ".png";
+            final Path file = resourceDir.resolve(prefix + dir).resolve(name);
+            Files.createDirectories(file.getParent());
+            Files.createFile(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.walkFileTree(resourceDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path d, final IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Benchmark
+    public String[] directoryScanner() {
+        final DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir(resourceDir.toFile());
+        scanner.setIncludes(INCLUDES);
+        scanner.setExcludes(EXCLUDES);
+        scanner.scan();
+        return scanner.getIncludedFiles();
+    }
+
+    @Benchmark
+    public List<String> resourceScanner() throws IOException {
+        return new ResourceScanner(resourceDir, INCLUDES, EXCLUDES).scan();
+    }
+}
@@ -0,0 +1,168 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import freemarker.template.TemplateException;
+
+/**
+ * Benchmarks rendering the constants class with the Freemarker templates and
+ * with the native implementation of the built-in templates.
+ * <p>
+ * The output is discarded, so only the rendering is measured.
+ *
+ * @author Ralf Schandl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+
+    private static final String KEYS_TEMPLATE = "plugin-default-templates/keys-template.ftl";
+    private static final String VALUES_TEMPLATE = "plugin-default-templates/values-template.ftl";
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    private int keyCount;
+
+    @Param({ "ASCII", "NON_ASCII" })
+    private KeyKind keyKind;
+
+    @Param({ "false", "true" })
+    private boolean longValues;
+
+    private GeneratorRequest genReq;
+
+    private List<PropEntry> entries;
+
+    private Map<String, Object> model;
+
+    private TemplateHandler templateHandler;
+
+    @Setup
+    public void setup() {
+        final GeneratorRequest.Builder builder = new GeneratorRequest.Builder();
+        builder.className("de.r3s6.bench.MessagesKeys");
+        builder.javaFileName("de/r3s6/bench/MessagesKeys.java");
+        builder.javaFile(new File("de/r3s6/bench/MessagesKeys.java"));
+        builder.propertiesFileName("de/r3s6/bench/messages.properties");
+        builder.propertiesFile(new File("de/r3s6/bench/messages.properties"));
+        builder.xmlProperties(false);
+        builder.bundleName("de.r3s6.bench.messages");
+        genReq = builder.build();
+
+        final Properties props = new OrderedProperties();
+        entries = new ArrayList<>();
+        Corpus.properties(keyCount, keyKind, longValues).forEach((k, v) -> {
+            props.put(k, v);
+            entries.add(new PropEntry(k, v));
+        });
+
+        model = new HashMap<>();
+        model.put("packageName", genReq.getPackageName());
+        model.put("simpleClassName", genReq.getSimpleClassName());
+        model.put("fullClassName", genReq.getFullClassName());
+        model.put("propertiesFileName", genReq.getPropertiesFileName());
+        model.put("javaFileName", genReq.getJavaFileName());
+        model.put("bundleName", genReq.getBundleName());
+        model.put("isXmlProperties", genReq.isXmlProperties());
+        model.put("entries", entries);
+        model.put("properties", props);
+        model.put("options", Collections.emptyMap());
+
+        templateHandler = new TemplateHandler(new File("."), "UTF-8");
+    }
+
+    @Benchmark
+    public long freemarkerKeys() throws IOException, TemplateException {
+        final CountingWriter out = new CountingWriter();
+        templateHandler.process(KEYS_TEMPLATE, model, new PrintWriter(out));
+        return out.count;
+    }
+
+    @Benchmark
+    public long freemarkerValues() throws IOException, TemplateException {
+        final CountingWriter out = new CountingWriter();
+        templateHandler.process(VALUES_TEMPLATE, model, new PrintWriter(out));
+        return out.count;
+    }
+
+    @Benchmark
+    public long nativeKeys() throws IOException {
+        final CountingWriter out = new CountingWriter();
+        BuiltinTemplateEmitter.emitKeys(genReq, entries, Collections.emptyMap(), new PrintWriter(out));
+        return out.count;
+    }
+
+    @Benchmark
+    public long nativeValues() throws IOException {
+        final CountingWriter out = new CountingWriter();
+        BuiltinTemplateEmitter.emitValues(genReq, entries, new PrintWriter(out));
+        return out.count;
+    }
+
+    /**
+     * Writer that only counts the written characters.
+     */
+    private static final class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.ComponentConfigurationException;
+import org.codehaus.plexus.component.configurator.ComponentConfigurator;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+/**
+ * Goal to generate the Java constant classes of all modules of a multi-module
+ * build in one pass.
+ * <p>
+ * Collects the configuration of all executions of the goal {@code generate} in
+ * the modules of the reactor. The resource directories of all modules are
+ * scanned in parallel, then the Java classes of all modules are generated on
+ * one shared thread pool. So the threads are busy as long as any module has
+ * work left, instead of being limited by the largest properties file of every
+ * single module. Every module gets the compile source root it would get from
+ * the goal {@code generate}.
+ * <p>
+ * The goal is run once on the root project, typically together with the
+ * property {@code properties-constants.skip} to skip the executions of the
+ * goal {@code generate} in the modules:
+ *
+ * <pre>
+ * mvn properties-constants:generate-aggregate install -Dproperties-constants.skip
+ * </pre>
+ * <p>
+ * The property {@code properties-constants.skip} is ignored when collecting
+ * the configuration of the modules, but a module with the parameter
+ * {@code skip} configured to {@code true} is skipped.
+ *
+ * @author Ralf Schandl
+ */
+// CSOFF: MultipleString
+@Mojo(name = "generate-aggregate", aggregator = true)
+public class AggregateMojo extends AbstractMojo {
+
+    private static final String GENERATE_GOAL = "generate";
+
+    private static final String SKIP_PARAMETER = "skip";
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    private MavenSession session;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    private List<MavenProject> reactorProjects;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    private PluginDescriptor pluginDescriptor;
+
+    @Component
+    private BuildContext buildContext;
+
+    @Component(role = ComponentConfigurator.class, hint = "basic")
+    private ComponentConfigurator configurator;
+
+    /**
+     * Whether to skip the plugin execution.
+     */
+    @Parameter(property = "properties-constants.aggregate.skip")
+    private boolean skip;
+
+    /**
+     * Number of threads of the shared thread pool.
+     * <p>
+     * A value less than 1 means the number of available processors.
+     */
+    @Parameter(property = "properties-constants.threads", defaultValue = "0")
+    private int threads;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipped - skip == true");
+            return;
+        }
+
+        final List<Module> modules = collectModules();
+        if (modules.isEmpty()) {
+            getLog().info("No module executes the goal " + GENERATE_GOAL);
+            return;
+        }
+        generate(modules);
+    }
+
+    /**
+     * Generates the Java classes of the given modules.
+     * <p>
+     * Errors of a module don't stop the generation of the other modules. They are
+     * reported together at the end.
+     *
+     * @param modules the configured modules
+     * @throws MojoExecutionException on configuration or template problems
+     */
+    // package visibility for testing
+    void generate(final List<Module> modules) throws MojoExecutionException {
+        final List<String> errorMessages = new ArrayList<>();
+
+        final List<Module> active = new ArrayList<>(modules.size());
+        for (final Module module : modules) {
+            if (module.mojo.isSkip()) {
+                getLog().info(module.name + ": Skipped - skip == true");
+                continue;
+            }
+            try {
+                module.mojo.checkConfig();
+                module.mojo.checkResourceDir();
+                active.add(module);
+            } catch (final MojoExecutionException e) {
+                errorMessages.add(module.name + ": " + e.getMessage());
+            }
+        }
+
+        generateOnPool(active, errorMessages);
+
+        if (!errorMessages.isEmpty()) {
+            throw new MojoExecutionException(String.join("\n", errorMessages));
+        }
+    }
+
+    /**
+     * Scans the modules and generates their Java classes on one thread pool. The
+     * results are reported in reactor order.
+     *
+     * @param active        the modules to generate
+     * @param errorMessages list to add the error messages of the modules to
+     * @throws MojoExecutionException on template problems
+     */
+    private void generateOnPool(final List<Module> active, final List<String> errorMessages)
+            throws MojoExecutionException {
+        final int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        getLog().debug("Generating " + active.size() + " module(s) with " + threadCount + " threads");
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, r -> {
+            final Thread thread = new Thread(r, "prop-constants-aggregate-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // scan the resource directories of all modules
+            final List<Future<List<String>>> scans = new ArrayList<>(active.size());
+            for (final Module module : active) {
+                scans.add(module.mojo.submitScan(executor));
+            }
+
+            // evaluate the scans and submit the requests of all modules in reactor order
+            final List<Map<GeneratorRequest, String>> outdated = new ArrayList<>(active.size());
+            final List<List<Future<GenerationResult>>> results = new ArrayList<>(active.size());
+            for (int i = 0; i < active.size(); i++) {
+                final Map<GeneratorRequest, String> genRequests = active.get(i).mojo.scanAll(scans.get(i));
+                outdated.add(genRequests);
+                results.add(active.get(i).mojo.submit(genRequests.keySet(), executor));
+            }
+
+            // report in reactor order
+            for (int i = 0; i < active.size(); i++) {
+                final Module module = active.get(i);
+                module.mojo.reportResults(outdated.get(i), results.get(i));
+                module.mojo.finishPass();
+                module.mojo.addSourceRoots();
+                for (final String msg : module.mojo.takeErrorMessages()) {
+                    errorMessages.add(module.name + ": " + msg);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Collects the executions of the goal {@code generate} of all reactor
+     * projects and configures a {@link GenerateMojo} for every execution.
+     *
+     * @return the configured modules in reactor order
+     * @throws MojoExecutionException if a configuration is invalid
+     */
+    private List<Module> collectModules() throws MojoExecutionException {
+        final MojoDescriptor descriptor = pluginDescriptor.getMojo(GENERATE_GOAL);
+        final List<Module> modules = new ArrayList<>();
+        for (final MavenProject project : reactorProjects) {
+            final Plugin plugin = project.getPlugin(pluginDescriptor.getPluginLookupKey());
+            if (plugin == null) {
+                continue;
+            }
+            for (final PluginExecution execution : plugin.getExecutions()) {
+                if (execution.getGoals().contains(GENERATE_GOAL)) {
+                    final Xpp3Dom config = mergeConfiguration((Xpp3Dom) execution.getConfiguration(),
+                            (Xpp3Dom) plugin.getConfiguration(), descriptor);
+                    final String name = project.getArtifactId() + "[" + execution.getId() + "]";
+                    modules.add(new Module(name, configure(project, execution.getId(), config, descriptor)));
+                }
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Merges the configuration of an execution, the configuration of the plugin
+     * and the defaults of the goal {@code generate}, like Maven does for a mojo
+     * execution. The default of the parameter {@code skip} (the property
+     * {@code properties-constants.skip}) is dropped.
+     *
+     * @param executionConfig the configuration of the execution, might be null
+     * @param pluginConfig    the configuration of the plugin, might be null
+     * @param descriptor      the descriptor of the goal {@code generate}
+     * @return the complete configuration
+     */
+    // package visibility for testing
+    static Xpp3Dom mergeConfiguration(final Xpp3Dom executionConfig, final Xpp3Dom pluginConfig,
+            final MojoDescriptor descriptor) {
+        final Xpp3Dom config = Xpp3Dom.mergeXpp3Dom(copy(executionConfig), copy(pluginConfig));
+
+        final Xpp3Dom merged = new Xpp3Dom("configuration");
+        for (final org.apache.maven.plugin.descriptor.Parameter parameter : descriptor.getParameters()) {
+            final String name = parameter.getName();
+            final Xpp3Dom value = config == null ? null : config.getChild(name);
+            final Xpp3Dom dflt = SKIP_PARAMETER.equals(name) ? null : defaultConfiguration(parameter);
+            if (value != null || dflt != null) {
+                merged.addChild(Xpp3Dom.mergeXpp3Dom(copy(value), dflt));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Creates the default configuration of a parameter from its expression and
+     * default value, like Maven does for a mojo execution.
+     *
+     * @param parameter the parameter
+     * @return the default configuration, null if the parameter has no default
+     */
+    private static Xpp3Dom defaultConfiguration(final org.apache.maven.plugin.descriptor.Parameter parameter) {
+        final String expression = parameter.getExpression();
+        final String defaultValue = parameter.getDefaultValue();
+        if (expression == null && defaultValue == null) {
+            return null;
+        }
+        final Xpp3Dom dflt = new Xpp3Dom(parameter.getName());
+        dflt.setValue(expression);
+        if (defaultValue != null) {
+            dflt.setAttribute("default-value", defaultValue);
+        }
+        return dflt;
+    }
+
+    private GenerateMojo configure(final MavenProject project, final String executionId, final Xpp3Dom config,
+            final MojoDescriptor descriptor) throws MojoExecutionException {
+        final MavenSession projectSession = session.clone();
+        projectSession.setCurrentProject(project);
+        final PluginParameterExpressionEvaluator evaluator = new PluginParameterExpressionEvaluator(projectSession,
+                new MojoExecution(descriptor, executionId));
+
+        final GenerateMojo mojo = new GenerateMojo();
+        try {
+            configurator.configureComponent(mojo, new XmlPlexusConfiguration(config), evaluator,
+                    pluginDescriptor.getClassRealm());
+        } catch (final ComponentConfigurationException e) {
+            throw new MojoExecutionException("Invalid configuration of " + project.getArtifactId() + "["
+                    + executionId + "]: " + e.getMessage(), e);
+        }
+        mojo.setBuildContext(buildContext);
+        mojo.setLog(getLog());
+        return mojo;
+    }
+
+    private static Xpp3Dom copy(final Xpp3Dom dom) {
+        return dom == null ? null : new Xpp3Dom(dom);
+    }
+
+    /**
+     * An execution of the goal {@code generate} in a module.
+     */
+    static final class Module {
+        private final String name;
+        private final GenerateMojo mojo;
+
+        Module(final String name, final GenerateMojo mojo) {
+            this.name = name;
+            this.mojo = mojo;
+        }
+    }
+}
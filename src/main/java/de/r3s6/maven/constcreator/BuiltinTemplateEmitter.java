@@ -0,0 +1,900 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Native implementation of the built-in templates "keys", "values", "enum" and
+ * "bundle".
+ * <p>
+ * Writes the same output as the Freemarker templates in
+ * {@code plugin-default-templates}, but without the overhead of loading,
+ * parsing and interpreting a template. If one of the templates is changed, this
+ * class has to be changed accordingly (see BuiltinTemplateEmitterTest).
+ * <p>
+ * Lines are always terminated with "\n", like in the templates.
+ * <p>
+ * Some features are not supported by the Freemarker templates, so the output
+ * differs if they are used:
+ * <ul>
+ * <li>The template option {@value #GEN_LOOKUP_METHOD_OPTION} of the template
+ * "keys" generates a lookup method for the keys.</li>
+ * <li>The template option {@value #MAX_CONSTANT_VALUE_SIZE_OPTION} of the
+ * template "values" stores values that are too large for a constant in a
+ * resource file. They are loaded lazily by a generated accessor method.</li>
+ * <li>The constants of the templates "keys" and "values" can be distributed over
+ * part interfaces implemented by the constants class.</li>
+ * </ul>
+ *
+ * @author Ralf Schandl
+ */
+// CSOFF: MultipleString
+public final class BuiltinTemplateEmitter {
+
+    /** Option of the template "values": Maximum size of a constant value. */
+    public static final String MAX_CONSTANT_VALUE_SIZE_OPTION = "maxConstantValueSize";
+
+    /** Option of the template "keys": Generate the lookup method. */
+    public static final String GEN_LOOKUP_METHOD_OPTION = "genLookupMethod";
+
+    /** File name suffix of the resource with the externalized values. */
+    public static final String VALUES_RESOURCE_SUFFIX = ".values";
+
+    /** Class name suffix of the part interfaces, followed by the part index. */
+    public static final String PART_CLASS_SUFFIX = "Part";
+
+    /**
+     * Maximum number of constants of an enum. All enum constants are created in the
+     * static initializer, that is limited to 64 KB of byte code like any method.
+     * javac fails with "code too large" at about 3400 constants.
+     */
+    public static final int MAX_ENUM_CONSTANTS = 3000;
+
+    private static final String NL = "\n";
+
+    private static final String TRUE = "true";
+
+    private static final String PUBLIC_STATIC_FINAL_STRING = "    public static final String ";
+
+    /** Declaration of a constant in an interface, implicitly public static final. */
+    private static final String INTERFACE_STRING = "    String ";
+
+    private static final String KEYS_DESCRIPTION = "The constant values are the keys to access the properties.";
+
+    private static final String VALUES_DESCRIPTION = "The constant values are the values of the properties.";
+
+    /** Maximum length of a string constant in the class file (modified UTF-8). */
+    private static final int MAX_CONSTANT_SIZE = 65_535;
+
+    /**
+     * Maximum number of keys in one lookup method. Keeps the byte code of a method
+     * below the limit of 64 KB.
+     */
+    private static final int MAX_KEYS_PER_LOOKUP_METHOD = 500;
+
+    private static final String LOOKUP_METHOD = "indexOf";
+
+    /**
+     * Maximum number of entries in one method of a resource bundle. Keeps the byte
+     * code of a method below the limit of 64 KB.
+     */
+    private static final int MAX_ENTRIES_PER_BUNDLE_METHOD = 1000;
+
+    private BuiltinTemplateEmitter() {
+        // Nothing to instantiate.
+    }
+
+    /**
+     * Writes the constants class with the keys of the properties (template id
+     * "keys").
+     *
+     * @param genReq  the generator request
+     * @param entries the properties entries
+     * @param options the template options
+     * @param out     the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitKeys(final GeneratorRequest genReq, final List<PropEntry> entries,
+            final Map<String, String> options, final Writer out) throws IOException {
+
+        final boolean genLookupMethod = TRUE.equals(option(options, GEN_LOOKUP_METHOD_OPTION, "false"));
+
+        emitHeader(genReq, KEYS_DESCRIPTION, 0, out);
+
+        emitNameConstants(genReq, options, out);
+
+        for (final PropEntry entry : entries) {
+            emitConstant("Key", entry, entry.getJavaKey(), PUBLIC_STATIC_FINAL_STRING, out);
+        }
+
+        if (genLookupMethod) {
+            emitLookup(entries, out);
+        }
+
+        emitFooter(genReq, NL, out);
+    }
+
+    /**
+     * Writes an enum with the keys of the properties (template id "enum").
+     * <p>
+     * Supports the same options for the properties file name and bundle name
+     * constants as {@link #emitKeys(GeneratorRequest, List, Map, Writer)}.
+     * <p>
+     * The caller has to make sure, that there are not more than
+     * {@value #MAX_ENUM_CONSTANTS} entries. Otherwise the enum can't be compiled.
+     *
+     * @param genReq  the generator request
+     * @param entries the properties entries
+     * @param options the template options
+     * @param out     the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitEnum(final GeneratorRequest genReq, final List<PropEntry> entries,
+            final Map<String, String> options, final Writer out) throws IOException {
+
+        final String className = genReq.getSimpleClassName();
+
+        out.write("package " + genReq.getPackageName() + ";" + NL);
+        out.write(NL);
+        out.write("/**" + NL);
+        out.write(" * Keys of " + genReq.getPropertiesFileName() + "." + NL);
+        out.write(" * <p>" + NL);
+        out.write(" * The enum constants represent the keys to access the properties. The values" + NL);
+        out.write(" * can be loaded in a single pass into an array indexed by the ordinal of the" + NL);
+        out.write(" * keys, see {@link #loadValues(java.util.ResourceBundle)}." + NL);
+        out.write(" *" + NL);
+        out.write(" * @author properties-constants-maven-plugin" + NL);
+        out.write(" */" + NL);
+        out.write("public enum " + className + " {" + NL);
+
+        for (int i = 0; i < entries.size(); i++) {
+            final PropEntry entry = entries.get(i);
+            out.write(NL);
+            out.write("    /**" + NL);
+            out.write("     * Key of <code>" + entry.getJavadocKey() + "=" + entry.getJavadocValue() + "</code>."
+                    + NL);
+            out.write("     */" + NL);
+            out.write("    " + entry.getConstantName() + "(\"" + entry.getJavaKey() + "\")"
+                    + (i < entries.size() - 1 ? "," : ";") + NL);
+        }
+        if (entries.isEmpty()) {
+            out.write("    ;" + NL);
+        }
+
+        emitNameConstants(genReq, options, out);
+
+        out.write(NL);
+        out.write("    /** The key of the property. */" + NL);
+        out.write("    private final String key;" + NL);
+        out.write(NL);
+        out.write("    " + className + "(final String key) {" + NL);
+        out.write("        this.key = key;" + NL);
+        out.write("    }" + NL);
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * Returns the key to access the property." + NL);
+        out.write("     *" + NL);
+        out.write("     * @return the key" + NL);
+        out.write("     */" + NL);
+        out.write("    public String key() {" + NL);
+        out.write("        return key;" + NL);
+        out.write("    }" + NL);
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * Loads the values of all keys from a resource bundle." + NL);
+        out.write("     *" + NL);
+        out.write("     * @param bundle the resource bundle" + NL);
+        out.write("     * @return the values" + NL);
+        out.write("     */" + NL);
+        out.write("    public static Values loadValues(final java.util.ResourceBundle bundle) {" + NL);
+        out.write("        final " + className + "[] keys = values();" + NL);
+        out.write("        final String[] values = new String[keys.length];" + NL);
+        out.write("        for (int i = 0; i < keys.length; i++) {" + NL);
+        out.write("            if (bundle.containsKey(keys[i].key)) {" + NL);
+        out.write("                values[i] = bundle.getString(keys[i].key);" + NL);
+        out.write("            }" + NL);
+        out.write("        }" + NL);
+        out.write("        return new Values(values);" + NL);
+        out.write("    }" + NL);
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * Loads the values of all keys from properties." + NL);
+        out.write("     *" + NL);
+        out.write("     * @param properties the properties" + NL);
+        out.write("     * @return the values" + NL);
+        out.write("     */" + NL);
+        out.write("    public static Values loadValues(final java.util.Properties properties) {" + NL);
+        out.write("        final " + className + "[] keys = values();" + NL);
+        out.write("        final String[] values = new String[keys.length];" + NL);
+        out.write("        for (int i = 0; i < keys.length; i++) {" + NL);
+        out.write("            values[i] = properties.getProperty(keys[i].key);" + NL);
+        out.write("        }" + NL);
+        out.write("        return new Values(values);" + NL);
+        out.write("    }" + NL);
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * The values of the properties, stored in an array indexed by the ordinal of" + NL);
+        out.write("     * the keys." + NL);
+        out.write("     */" + NL);
+        out.write("    public static final class Values {" + NL);
+        out.write(NL);
+        out.write("        private final String[] values;" + NL);
+        out.write(NL);
+        out.write("        private Values(final String[] values) {" + NL);
+        out.write("            this.values = values;" + NL);
+        out.write("        }" + NL);
+        out.write(NL);
+        out.write("        /**" + NL);
+        out.write("         * Returns the value of a key." + NL);
+        out.write("         *" + NL);
+        out.write("         * @param key the key" + NL);
+        out.write("         * @return the value or null if the key has no value" + NL);
+        out.write("         */" + NL);
+        out.write("        public String get(final " + className + " key) {" + NL);
+        out.write("            return values[key.ordinal()];" + NL);
+        out.write("        }" + NL);
+        out.write("    }" + NL);
+        out.write("}" + NL);
+    }
+
+    /**
+     * Writes a {@link java.util.ListResourceBundle} with the properties (template
+     * id "bundle").
+     * <p>
+     * The class name has to be the bundle base name followed by the locale of the
+     * request (if any), so the class is found by
+     * {@link java.util.ResourceBundle#getBundle(String)}.
+     *
+     * @param genReq  the generator request
+     * @param entries the properties entries
+     * @param out     the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitBundle(final GeneratorRequest genReq, final List<PropEntry> entries, final Writer out)
+            throws IOException {
+
+        final String fullClassName = genReq.getFullClassName();
+        final String baseName = genReq.getLocale().isEmpty() ? fullClassName
+                : fullClassName.substring(0, fullClassName.length() - genReq.getLocale().length() - 1);
+
+        out.write("package " + genReq.getPackageName() + ";" + NL);
+        out.write(NL);
+        out.write("/**" + NL);
+        out.write(" * Resource bundle for " + genReq.getPropertiesFileName() + "." + NL);
+        out.write(" * <p>" + NL);
+        out.write(" * Load it with {@code ResourceBundle.getBundle(\"" + baseName + "\", locale)}." + NL);
+        out.write(" *" + NL);
+        out.write(" * @author properties-constants-maven-plugin" + NL);
+        out.write(" */" + NL);
+        out.write("public final class " + genReq.getSimpleClassName() + " extends java.util.ListResourceBundle {" + NL);
+        out.write(NL);
+        out.write("    @Override" + NL);
+        out.write("    protected Object[][] getContents() {" + NL);
+
+        if (entries.size() <= MAX_ENTRIES_PER_BUNDLE_METHOD) {
+            out.write("        return new Object[][] {" + NL);
+            for (final PropEntry entry : entries) {
+                out.write("            { \"" + entry.getJavaKey() + "\", \""
+                        + entry.getJavaValue() + "\" }," + NL);
+            }
+            out.write("        };" + NL);
+            out.write("    }" + NL);
+        } else {
+            final int methodCount = (entries.size() + MAX_ENTRIES_PER_BUNDLE_METHOD - 1)
+                    / MAX_ENTRIES_PER_BUNDLE_METHOD;
+            out.write("        final Object[][] contents = new Object[" + entries.size() + "][];" + NL);
+            for (int m = 0; m < methodCount; m++) {
+                out.write("        fillContents" + m + "(contents);" + NL);
+            }
+            out.write("        return contents;" + NL);
+            out.write("    }" + NL);
+
+            for (int m = 0; m < methodCount; m++) {
+                out.write(NL);
+                out.write("    private static void fillContents" + m + "(final Object[][] contents) {" + NL);
+                final int end = Math.min(entries.size(), (m + 1) * MAX_ENTRIES_PER_BUNDLE_METHOD);
+                for (int i = m * MAX_ENTRIES_PER_BUNDLE_METHOD; i < end; i++) {
+                    final PropEntry entry = entries.get(i);
+                    out.write("        contents[" + i + "] = new Object[] { \"" + entry.getJavaKey()
+                            + "\", \"" + entry.getJavaValue() + "\" };" + NL);
+                }
+                out.write("    }" + NL);
+            }
+        }
+        out.write("}" + NL);
+    }
+
+    /**
+     * Returns the names of the constants holding the properties file name and the
+     * bundle name, that are generated with the given options. No property key may
+     * be mapped to them.
+     *
+     * @param options the template options
+     * @return the names of the generated name constants
+     */
+    public static Set<String> nameConstants(final Map<String, String> options) {
+        final Set<String> names = new HashSet<>();
+        final String propertiesFilenameConstant = propertiesFilenameConstant(options);
+        if (propertiesFilenameConstant != null) {
+            names.add(propertiesFilenameConstant);
+        }
+        final String bundleNameConstant = bundleNameConstant(options);
+        if (bundleNameConstant != null) {
+            names.add(bundleNameConstant);
+        }
+        return names;
+    }
+
+    private static String propertiesFilenameConstant(final Map<String, String> options) {
+        return TRUE.equals(option(options, "genPropertiesFilenameConstant", TRUE))
+                ? option(options, "propertiesFilenameConstant", "PROPERTIES_FILE_NAME")
+                : null;
+    }
+
+    private static String bundleNameConstant(final Map<String, String> options) {
+        return TRUE.equals(option(options, "genBundleNameConstant", "false"))
+                ? option(options, "bundleNameConstant", "BUNDLE_NAME")
+                : null;
+    }
+
+    private static void emitNameConstants(final GeneratorRequest genReq, final Map<String, String> options,
+            final Writer out) throws IOException {
+        final String propertiesFilenameConstant = propertiesFilenameConstant(options);
+        final String bundleNameConstant = bundleNameConstant(options);
+
+        if (propertiesFilenameConstant != null) {
+            out.write(NL);
+            out.write("    /**" + NL);
+            out.write("     * Properties file used to generate this class: \"" + genReq.getPropertiesFileName()
+                    + "\"." + NL);
+            out.write("     */" + NL);
+            out.write(PUBLIC_STATIC_FINAL_STRING + propertiesFilenameConstant + " = \""
+                    + genReq.getPropertiesFileName() + "\";" + NL);
+        }
+        if (bundleNameConstant != null) {
+            out.write(NL);
+            out.write("    /**" + NL);
+            out.write("     * ResourceBundle used to generate this class: \"" + genReq.getBundleName() + "\"." + NL);
+            out.write("     */" + NL);
+            out.write(PUBLIC_STATIC_FINAL_STRING + bundleNameConstant + " = \"" + genReq.getBundleName() + "\";"
+                    + NL);
+        }
+    }
+
+    /**
+     * Writes the constants class with the values of the properties (template id
+     * "values").
+     *
+     * @param genReq  the generator request
+     * @param entries the properties entries
+     * @param out     the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitValues(final GeneratorRequest genReq, final List<PropEntry> entries, final Writer out)
+            throws IOException {
+        emitValues(genReq, entries, Collections.emptyList(), out);
+    }
+
+    /**
+     * Writes the constants class with the values of the properties (template id
+     * "values").
+     * <p>
+     * For the externalized entries an accessor method is generated instead of a
+     * constant. The values are loaded from the resource created with
+     * {@link #encodeValues(List)} on first access.
+     *
+     * @param genReq   the generator request
+     * @param entries  the properties entries
+     * @param external the entries with externalized values, see
+     *                 {@link #selectExternalValues(Collection, Map)}
+     * @param out      the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitValues(final GeneratorRequest genReq, final List<PropEntry> entries,
+            final List<PropEntry> external, final Writer out) throws IOException {
+
+        emitHeader(genReq, VALUES_DESCRIPTION, 0, out);
+
+        final Set<PropEntry> externalSet = new HashSet<>(external);
+        int index = 0;
+        for (final PropEntry entry : entries) {
+            if (externalSet.contains(entry)) {
+                emitAccessor(genReq, entry, "    public static String ", "ExternalValues.VALUES[" + index++ + "]",
+                        out);
+            } else {
+                emitConstant("Value", entry, entry.getJavaValue(), PUBLIC_STATIC_FINAL_STRING, out);
+            }
+        }
+
+        if (!external.isEmpty()) {
+            emitValuesLoader(genReq, "    private static final class ", out);
+        }
+
+        emitFooter(genReq, "", out);
+    }
+
+    /**
+     * Returns the request of a part interface of a constants class.
+     *
+     * @param genReq the generator request of the constants class
+     * @param index  the index of the part
+     * @return the request of the part interface
+     */
+    public static GeneratorRequest partRequest(final GeneratorRequest genReq, final int index) {
+        return genReq.withClassNameSuffix(PART_CLASS_SUFFIX + index);
+    }
+
+    /**
+     * Distributes the entries over part interfaces by the hash of the key. A key
+     * stays in its part interface as long as the number of part interfaces doesn't
+     * change.
+     *
+     * @param entries   the properties entries
+     * @param partCount the number of part interfaces, a power of two
+     * @return the entries of the part interfaces
+     */
+    public static List<Map<String, PropEntry>> distribute(final Map<String, PropEntry> entries,
+            final int partCount) {
+        final List<Map<String, PropEntry>> parts = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            parts.add(new LinkedHashMap<>());
+        }
+        entries.forEach((key, entry) -> parts.get(partIndex(key, partCount)).put(key, entry));
+        return parts;
+    }
+
+    /**
+     * Determines the part interface of a key. Depends only on the key and the
+     * number of part interfaces.
+     *
+     * @param key       the key
+     * @param partCount the number of part interfaces, a power of two
+     * @return the index of the part interface
+     */
+    // package visibility for testing
+    static int partIndex(final String key, final int partCount) {
+        final int hash = key.hashCode();
+        // CSOFF: MagicNumber
+        return (hash ^ (hash >>> 16)) & (partCount - 1);
+        // CSON: MagicNumber
+    }
+
+    /**
+     * Writes the constants class of the template "keys", if its constants are
+     * distributed over part interfaces.
+     * <p>
+     * The class implements the part interfaces written with
+     * {@link #emitKeysPart(GeneratorRequest, int, List, Writer)}, so all
+     * constants are accessed through this class.
+     *
+     * @param genReq    the generator request
+     * @param partCount the number of part interfaces
+     * @param options   the template options
+     * @param out       the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitKeysMain(final GeneratorRequest genReq, final int partCount,
+            final Map<String, String> options, final Writer out) throws IOException {
+        emitHeader(genReq, KEYS_DESCRIPTION, partCount, out);
+        emitNameConstants(genReq, options, out);
+        emitFooter(genReq, NL, out);
+    }
+
+    /**
+     * Writes a part interface with constants of the template "keys".
+     *
+     * @param genReq    the generator request of the constants class
+     * @param index   the index of the part
+     * @param entries the properties entries of the part
+     * @param out     the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitKeysPart(final GeneratorRequest genReq, final int index, final List<PropEntry> entries,
+            final Writer out) throws IOException {
+        emitPartHeader(genReq, index, KEYS_DESCRIPTION, out);
+        for (final PropEntry entry : entries) {
+            emitConstant("Key", entry, entry.getJavaKey(), INTERFACE_STRING, out);
+        }
+        out.write("}" + NL);
+    }
+
+    /**
+     * Writes the constants class of the template "values", if its constants are
+     * distributed over part interfaces.
+     * <p>
+     * The class implements the part interfaces written with
+     * {@link #emitValuesPart(GeneratorRequest, int, List, List, Writer)}, so
+     * all constants are accessed through this class. As static interface methods
+     * are not inherited, the class delegates to the accessor methods of the
+     * externalized values.
+     *
+     * @param genReq   the generator request
+     * @param external the entries with externalized values of every part
+     * @param out      the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitValuesMain(final GeneratorRequest genReq, final List<List<PropEntry>> external,
+            final Writer out) throws IOException {
+        emitHeader(genReq, VALUES_DESCRIPTION, external.size(), out);
+        for (int i = 0; i < external.size(); i++) {
+            final GeneratorRequest partReq = partRequest(genReq, i);
+            for (final PropEntry entry : external.get(i)) {
+                emitAccessor(partReq, entry, "    public static String ",
+                        partReq.getSimpleClassName() + "." + entry.getGetterName() + "()", out);
+            }
+        }
+        emitFooter(genReq, "", out);
+    }
+
+    /**
+     * Writes a part interface with constants of the template "values".
+     *
+     * @param genReq   the generator request of the constants class
+     * @param index    the index of the part
+     * @param entries  the properties entries of the part
+     * @param external the entries of the part with externalized values, see
+     *                 {@link #selectExternalValues(Collection, Map)}
+     * @param out      the writer to write to
+     * @throws IOException if writing fails
+     */
+    public static void emitValuesPart(final GeneratorRequest genReq, final int index, final List<PropEntry> entries,
+            final List<PropEntry> external, final Writer out) throws IOException {
+        final GeneratorRequest partReq = partRequest(genReq, index);
+        emitPartHeader(genReq, index, VALUES_DESCRIPTION, out);
+
+        final Set<PropEntry> externalSet = new HashSet<>(external);
+        int valueIndex = 0;
+        for (final PropEntry entry : entries) {
+            if (externalSet.contains(entry)) {
+                emitAccessor(partReq, entry, "    static String ", "ExternalValues.VALUES[" + valueIndex++ + "]",
+                        out);
+            } else {
+                emitConstant("Value", entry, entry.getJavaValue(), INTERFACE_STRING, out);
+            }
+        }
+
+        if (!external.isEmpty()) {
+            emitValuesLoader(partReq, "    final class ", out);
+        }
+        out.write("}" + NL);
+    }
+
+    /**
+     * Selects the entries with values that should not be generated as constant.
+     * <p>
+     * These are all values with a size above the option
+     * {@value #MAX_CONSTANT_VALUE_SIZE_OPTION} (in bytes, encoded as in the class
+     * file). Without the option, no values are externalized.
+     *
+     * @param entries the properties entries
+     * @param options the template options
+     * @return the entries with a value too large for a constant, in the given
+     *         order
+     * @throws IllegalArgumentException if the option is not a number
+     */
+    public static List<PropEntry> selectExternalValues(final Collection<PropEntry> entries,
+            final Map<String, String> options) {
+        final String option = options.get(MAX_CONSTANT_VALUE_SIZE_OPTION);
+        if (option == null) {
+            return Collections.emptyList();
+        }
+        final int maxSize;
+        try {
+            maxSize = Math.min(Integer.parseInt(option.trim()), MAX_CONSTANT_SIZE);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Template option " + MAX_CONSTANT_VALUE_SIZE_OPTION + " is not a number: " + option, e);
+        }
+
+        final List<PropEntry> external = new ArrayList<>();
+        for (final PropEntry entry : entries) {
+            if (constantSize(entry.getValue()) > maxSize) {
+                external.add(entry);
+            }
+        }
+        return external;
+    }
+
+    /**
+     * The name of the resource with the externalized values, relative to the
+     * package of the generated class.
+     *
+     * @param genReq the generator request
+     * @return the resource name
+     */
+    public static String valuesResourceName(final GeneratorRequest genReq) {
+        return genReq.getSimpleClassName() + VALUES_RESOURCE_SUFFIX;
+    }
+
+    /**
+     * Creates the content of the resource with the externalized values.
+     * <p>
+     * The format is the number of values followed by the length and the UTF-8
+     * bytes of every value, the numbers as written by
+     * {@link DataOutputStream#writeInt(int)}.
+     *
+     * @param external the entries with externalized values
+     * @return the content of the resource
+     */
+    public static byte[] encodeValues(final List<PropEntry> external) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(external.size());
+            for (final PropEntry entry : external) {
+                final byte[] bytes = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        } catch (final IOException e) {
+            // can't happen with ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes the header of a constants class. With part interfaces, the class
+     * implements all of them.
+     */
+    private static void emitHeader(final GeneratorRequest genReq, final String description, final int partCount,
+            final Writer out) throws IOException {
+        out.write("package " + genReq.getPackageName() + ";" + NL);
+        out.write(NL);
+        out.write("/**" + NL);
+        out.write(" * Constants for " + genReq.getPropertiesFileName() + "." + NL);
+        out.write(" * <p>" + NL);
+        out.write(" * " + description + NL);
+        if (partCount > 0) {
+            out.write(" * <p>" + NL);
+            out.write(" * The constants are inherited from the part interfaces "
+                    + partRequest(genReq, 0).getSimpleClassName() + " to "
+                    + partRequest(genReq, partCount - 1).getSimpleClassName() + "." + NL);
+        }
+        out.write(" *" + NL);
+        out.write(" * @author properties-constants-maven-plugin" + NL);
+        out.write(" */" + NL);
+        if (partCount == 0) {
+            out.write("public final class " + genReq.getSimpleClassName() + " {" + NL);
+            return;
+        }
+        out.write("public final class " + genReq.getSimpleClassName() + " implements" + NL);
+        for (int i = 0; i < partCount; i++) {
+            out.write("        " + partRequest(genReq, i).getSimpleClassName() + (i < partCount - 1 ? "," : " {")
+                    + NL);
+        }
+    }
+
+    private static void emitPartHeader(final GeneratorRequest genReq, final int index, final String description,
+            final Writer out) throws IOException {
+        out.write("package " + genReq.getPackageName() + ";" + NL);
+        out.write(NL);
+        out.write("/**" + NL);
+        out.write(" * Constants for " + genReq.getPropertiesFileName() + ", part " + index + "." + NL);
+        out.write(" * <p>" + NL);
+        out.write(" * " + description + NL);
+        out.write(" * <p>" + NL);
+        out.write(" * Use the constants through {@link " + genReq.getSimpleClassName()
+                + "}, that implements this interface." + NL);
+        out.write(" *" + NL);
+        out.write(" * @author properties-constants-maven-plugin" + NL);
+        out.write(" */" + NL);
+        out.write("interface " + partRequest(genReq, index).getSimpleClassName() + " {" + NL);
+    }
+
+    private static void emitConstant(final String kind, final PropEntry entry, final String literal,
+            final String declaration, final Writer out) throws IOException {
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * " + kind + " of <code>" + entry.getJavadocKey() + "=" + entry.getJavadocValue() + "</code>."
+                + NL);
+        out.write("     */" + NL);
+        out.write(declaration + entry.getConstantName() + " = \"" + literal + "\";" + NL);
+    }
+
+    /**
+     * Writes the method {@code indexOf(String)}, that returns the index of a key
+     * using a string switch.
+     * <p>
+     * To stay below the byte code limit of a method, the keys are distributed over
+     * several private methods by the hash of the key, if needed. The method to use
+     * is selected with a switch on the hash.
+     */
+    private static void emitLookup(final List<PropEntry> entries, final Writer out) throws IOException {
+        int methodCount = 1;
+        while (methodCount * MAX_KEYS_PER_LOOKUP_METHOD < entries.size()) {
+            methodCount <<= 1;
+        }
+
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * Returns the index of a key, the position of its constant in this class." + NL);
+        out.write("     *" + NL);
+        out.write("     * @param key the key" + NL);
+        out.write("     * @return the index of the key or -1 if it is not a key of this class" + NL);
+        out.write("     */" + NL);
+        out.write("    public static int " + LOOKUP_METHOD + "(final String key) {" + NL);
+        out.write("        if (key == null) {" + NL);
+        out.write("            return -1;" + NL);
+        out.write("        }" + NL);
+        if (methodCount == 1) {
+            emitLookupSwitch(entries, 0, 1, out);
+            out.write("    }" + NL);
+            return;
+        }
+
+        out.write("        final int hash = key.hashCode();" + NL);
+        out.write("        switch ((hash ^ (hash >>> 16)) & " + (methodCount - 1) + ") {" + NL);
+        for (int i = 0; i < methodCount; i++) {
+            out.write(i == methodCount - 1 ? "        default:" + NL : "        case " + i + ":" + NL);
+            out.write("            return " + LOOKUP_METHOD + i + "(key);" + NL);
+        }
+        out.write("        }" + NL);
+        out.write("    }" + NL);
+
+        for (int i = 0; i < methodCount; i++) {
+            out.write(NL);
+            out.write("    private static int " + LOOKUP_METHOD + i + "(final String key) {" + NL);
+            emitLookupSwitch(entries, i, methodCount, out);
+            out.write("    }" + NL);
+        }
+    }
+
+    private static void emitLookupSwitch(final List<PropEntry> entries, final int method, final int methodCount,
+            final Writer out) throws IOException {
+        out.write("        switch (key) {" + NL);
+        int index = 0;
+        for (final PropEntry entry : entries) {
+            if (lookupMethod(entry.getKey(), methodCount) == method) {
+                out.write("        case \"" + entry.getJavaKey() + "\":" + NL);
+                out.write("            return " + index + ";" + NL);
+            }
+            index++;
+        }
+        out.write("        default:" + NL);
+        out.write("            return -1;" + NL);
+        out.write("        }" + NL);
+    }
+
+    /**
+     * Selects the lookup method of a key, like the generated method
+     * {@code indexOf(String)}.
+     *
+     * @param key         the key
+     * @param methodCount the number of lookup methods, a power of two
+     * @return the index of the lookup method
+     */
+    private static int lookupMethod(final String key, final int methodCount) {
+        final int hash = key.hashCode();
+        // CSOFF: MagicNumber
+        return (hash ^ (hash >>> 16)) & (methodCount - 1);
+        // CSON: MagicNumber
+    }
+
+    /**
+     * Writes the accessor method of an externalized value.
+     *
+     * @param genReq      the request of the class with the resource of the value
+     * @param entry       the entry
+     * @param declaration the modifiers and return type of the method
+     * @param value       the expression returning the value
+     */
+    private static void emitAccessor(final GeneratorRequest genReq, final PropEntry entry, final String declaration,
+            final String value, final Writer out) throws IOException {
+        out.write(NL);
+        out.write("    /**" + NL);
+        out.write("     * Value of <code>" + entry.getJavadocKey() + "=" + entry.getJavadocValue() + "</code>." + NL);
+        out.write("     * <p>" + NL);
+        out.write("     * The value is loaded from the resource " + valuesResourceName(genReq) + "." + NL);
+        out.write("     *" + NL);
+        out.write("     * @return the value" + NL);
+        out.write("     */" + NL);
+        out.write(declaration + entry.getGetterName() + "() {" + NL);
+        out.write("        return " + value + ";" + NL);
+        out.write("    }" + NL);
+    }
+
+    /**
+     * Writes the holder class of the externalized values. The declaration differs
+     * for an interface, as its member classes are implicitly public static.
+     */
+    private static void emitValuesLoader(final GeneratorRequest genReq, final String declaration,
+            final Writer out) throws IOException {
+        final String resource = valuesResourceName(genReq);
+        out.write(NL);
+        out.write("    /** Holder of the values loaded from the resource " + resource + ". */" + NL);
+        out.write(declaration + "ExternalValues {" + NL);
+        out.write(NL);
+        out.write("        private static final String[] VALUES = load();" + NL);
+        out.write(NL);
+        out.write("        /** Hidden constructor. */" + NL);
+        out.write("        private ExternalValues() {" + NL);
+        out.write("            // nothing to instantiate" + NL);
+        out.write("        }" + NL);
+        out.write(NL);
+        out.write("        private static String[] load() {" + NL);
+        out.write("            final java.io.InputStream is = " + genReq.getSimpleClassName()
+                + ".class.getResourceAsStream(\"" + resource + "\");" + NL);
+        out.write("            if (is == null) {" + NL);
+        out.write("                throw new IllegalStateException(\"Resource not found: " + resource + "\");" + NL);
+        out.write("            }" + NL);
+        out.write("            try (java.io.DataInputStream in = new java.io.DataInputStream(" + NL);
+        out.write("                    new java.io.BufferedInputStream(is))) {" + NL);
+        out.write("                final String[] values = new String[in.readInt()];" + NL);
+        out.write("                for (int i = 0; i < values.length; i++) {" + NL);
+        out.write("                    final byte[] bytes = new byte[in.readInt()];" + NL);
+        out.write("                    in.readFully(bytes);" + NL);
+        out.write("                    values[i] = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);" + NL);
+        out.write("                }" + NL);
+        out.write("                return values;" + NL);
+        out.write("            } catch (final java.io.IOException e) {" + NL);
+        out.write("                throw new IllegalStateException(\"Can't read resource " + resource + "\", e);" + NL);
+        out.write("            }" + NL);
+        out.write("        }" + NL);
+        out.write("    }" + NL);
+    }
+
+    private static void emitFooter(final GeneratorRequest genReq, final String beforeClassEnd, final Writer out)
+            throws IOException {
+        out.write(NL);
+        out.write("    /** Hidden constructor. */" + NL);
+        out.write("    private " + genReq.getSimpleClassName() + "() {" + NL);
+        out.write("        // nothing to instantiate" + NL);
+        out.write("    }" + NL);
+        out.write(beforeClassEnd);
+        out.write("}" + NL);
+    }
+
+    private static String option(final Map<String, String> options, final String name, final String defaultValue) {
+        final String value = options.get(name);
+        return value == null ? defaultValue : value;
+    }
+
+    // CSOFF: MagicNumber
+    /**
+     * Calculates the size of a string in a class file (modified UTF-8).
+     *
+     * @param text the text
+     * @return the size in bytes
+     */
+    static int constantSize(final String text) {
+        int size = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c >= 0x01 && c <= 0x7F) {
+                size += 1;
+            } else if (c <= 0x7FF) {
+                size += 2;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+    // CSON: MagicNumber
+}
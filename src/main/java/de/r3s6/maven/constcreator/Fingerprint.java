@@ -0,0 +1,148 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Builds a SHA-256 fingerprint from strings and file content.
+ * <p>
+ * Every added string is prefixed with its length, so different sequences of
+ * strings can't produce the same fingerprint by accident.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Ralf Schandl
+ */
+public final class Fingerprint {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MessageDigest digest;
+
+    /**
+     * Constructs a new, empty Fingerprint.
+     */
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // should not be reached. Every JRE has to support SHA-256.
+            throw new IllegalStateException(ALGORITHM + " not supported", e);
+        }
+    }
+
+    /**
+     * Adds a string to the fingerprint.
+     *
+     * @param value the string to add. Might be null.
+     * @return this Fingerprint
+     */
+    public Fingerprint add(final String value) {
+        if (value == null) {
+            updateLength(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            updateLength(bytes.length);
+            digest.update(bytes);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a boolean to the fingerprint.
+     *
+     * @param value the boolean to add
+     * @return this Fingerprint
+     */
+    public Fingerprint add(final boolean value) {
+        return add(Boolean.toString(value));
+    }
+
+    /**
+     * Adds the content of a file to the fingerprint.
+     *
+     * @param file the file to read
+     * @return this Fingerprint
+     * @throws IOException if reading the file fails
+     */
+    public Fingerprint addFile(final File file) throws IOException {
+        updateLength(file.length());
+        try (InputStream is = new FileInputStream(file)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = is.read(buffer)) >= 0) {
+                digest.update(buffer, 0, len);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the characters read from the given reader to the fingerprint.
+     * <p>
+     * The reader is <b>not</b> closed.
+     *
+     * @param reader the reader to read
+     * @return this Fingerprint
+     * @throws IOException if reading fails
+     */
+    public Fingerprint addContent(final Reader reader) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final char[] buffer = new char[BUFFER_SIZE];
+        int len;
+        while ((len = reader.read(buffer)) >= 0) {
+            sb.append(buffer, 0, len);
+        }
+        return add(sb.toString());
+    }
+
+    // CSOFF: MagicNumber
+    /**
+     * Completes the fingerprint and returns it as hex string.
+     * <p>
+     * After this call the Fingerprint is reset and can be reused.
+     *
+     * @return the fingerprint as lower case hex string
+     */
+    public String toHex() {
+        final byte[] hash = digest.digest();
+        final char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+        return new String(chars); // NOCS: IllegalInstantiation
+    }
+
+    private void updateLength(final long length) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (length >>> shift));
+        }
+    }
+    // CSON: MagicNumber
+}
@@ -15,10 +15,12 @@ package de.r3s6.maven.constcreator;
  * limitations under the License.
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.file.Files;
@@ -27,17 +29,30 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.lang.model.SourceVersion;
 
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -49,9 +64,13 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.Scanner;
 import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+import de.r3s6.maven.constcreator.PhaseTimer.Phase;
 
 import freemarker.core.ParseException;
 import freemarker.template.TemplateException;
+import freemarker.template.TemplateHashModel;
 import freemarker.template.TemplateNotFoundException;
 
 /**
@@ -59,15 +78,24 @@ import freemarker.template.TemplateNotFoundException;
  *
  * @author Ralf Schandl
  */
+// CSOFF: MultipleString
 @Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, requiresDependencyResolution = ResolutionScope.COMPILE)
 public class GenerateMojo extends AbstractMojo {
 
     private static final String KEYS_TEMPLATE_ID = "keys";
     private static final String VALUES_TEMPLATE_ID = "values";
+    private static final String ENUM_TEMPLATE_ID = "enum";
+    private static final String BUNDLE_TEMPLATE_ID = "bundle";
     private static final String DEFAULT_TEMPLATE_ID = KEYS_TEMPLATE_ID;
 
+    private static final String STREAMING_MODEL = "streaming";
+    private static final String MATERIALIZED_MODEL = "materialized";
+
     private static final String KEY_TEMPLATE_FMT = "plugin-default-templates/%s-template.ftl";
 
+    /** Maximum number of keys listed in a warning. */
+    private static final int MAX_REPORTED_KEYS = 10;
+
     /**
      * Match locale marker of resource bundle properties files.
      * <ul>
@@ -155,7 +183,15 @@ public class GenerateMojo extends AbstractMojo {
     /**
      * Template id or file name.
      * <p>
-     * The plugin provides the templates <code>keys</code> and <code>values</code>.
+     * The plugin provides the templates <code>keys</code>, <code>values</code>,
+     * <code>enum</code> and <code>bundle</code>.
+     * <p>
+     * The template <code>bundle</code> creates a <code>ListResourceBundle</code>
+     * for every properties file. The class name gets the locale of the properties
+     * file appended (e.g. <code>Messages_de</code> for
+     * <code>messages_de.properties</code>), so the locale variants of a resource
+     * bundle can be generated together and are found by
+     * <code>ResourceBundle.getBundle</code>.
      * <p>
      * A file name can be given for a custom Freemarker template. File name lookup
      * is:
@@ -180,56 +216,507 @@ public class GenerateMojo extends AbstractMojo {
      * <dd>generate the constant <code>BUNDLE_NAME</code></dd>
      * <dt>bundleNameConstant</dt>
      * <dd>changes the name of the bundle name constant</dd>
+     * <dt>genLookupMethod</dt>
+     * <dd>generate the method <code>indexOf(String)</code> to look up a key. Can't
+     * be combined with <code>maxKeysPerClass</code> or
+     * <code>maxSourceSize</code>.</dd>
+     * </dl>
+     * <p>
+     * The template <code>enum</code> supports the options of <code>keys</code>,
+     * except <code>genLookupMethod</code>.
+     * <p>
+     * The template <code>values</code> supports the following options:
+     * <dl>
+     * <dt>maxConstantValueSize</dt>
+     * <dd>values larger than this number of bytes are not generated as constant,
+     * but stored in the resource <code>&lt;class name&gt;.values</code> next to
+     * the Java file and loaded lazily by an accessor method (e.g.
+     * <code>getWelcomeMessage()</code>). The output directory is added as resource
+     * directory. The maximum size of a constant in a class file is 65535 bytes.</dd>
      * </dl>
      */
     @Parameter
     private Map<String, String> templateOptions = new HashMap<>();
 
+    /**
+     * Whether to skip properties files that did not change since the last build.
+     * <p>
+     * A fingerprint of every properties file, the template and the relevant
+     * configuration is recorded in a manifest in {@code stateDir}. A Java class is
+     * only generated again, if its fingerprint changed or the Java file is missing.
+     * The templates loaded by a custom template with {@code <#include>} or
+     * {@code <#import>} are recorded, too. If one of them changed, all Java classes
+     * are generated again.
+     * <p>
+     * The manifest also records the generated Java files. Java files generated by
+     * a previous build for a properties file that no longer exists (or is no longer
+     * included) are deleted.
+     */
+    @Parameter(property = "properties-constants.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Directory to store the generation manifest used for incremental builds.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/prop-constants-state")
+    private File stateDir;
+
+    /**
+     * Id of the current execution. Every execution has its own manifest.
+     */
+    @Parameter(defaultValue = "${mojoExecution.executionId}", readonly = true)
+    private String executionId;
+
+    /**
+     * How the properties entries are passed to a custom template.
+     * <ul>
+     * <li><code>materialized</code> (default): {@code entries} is a list and
+     * {@code properties} a copy of the properties. Supports index access and all
+     * sequence built-ins.</li>
+     * <li><code>streaming</code>: {@code entries} iterates over the loaded
+     * entries and {@code properties} is a read-only view of them. This saves
+     * the copies, but all entries are still held in memory. {@code entries}
+     * supports {@code #list} and {@code ?size}, but no index access and no
+     * sequence built-ins like {@code ?chunk} or {@code ?sort_by}. Use it, if
+     * the template only lists the entries.</li>
+     * </ul>
+     * The built-in templates don't use this.
+     */
+    @Parameter(property = "properties-constants.templateModel", defaultValue = MATERIALIZED_MODEL)
+    private String templateModel = MATERIALIZED_MODEL;
+
+    /**
+     * Whether to generate the Java classes in parallel.
+     * <p>
+     * Errors and log messages are reported in the same order as with sequential
+     * generation.
+     */
+    @Parameter(property = "properties-constants.parallel", defaultValue = "false")
+    private boolean parallel;
+
+    /**
+     * Number of threads to use for parallel generation.
+     * <p>
+     * A value less than 1 means the number of available processors.
+     */
+    @Parameter(property = "properties-constants.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Maximum number of keys in one generated class.
+     * <p>
+     * If a properties file has more keys, the constants are distributed over
+     * several part classes named like the constants class with the suffix
+     * {@code Part0}, {@code Part1} and so on. The part classes are package private
+     * interfaces and the constants class implements all of them, so every constant
+     * is still accessed through the constants class (e.g.
+     * {@code Messages.WELCOME}). The number of part classes is a power of two and a
+     * key is assigned to a part class by the hash of the key. So a key stays in
+     * its part class as long as the number of part classes doesn't change and
+     * only part classes with changed keys are written again. With
+     * {@code incremental} builds, the fingerprints of the part classes are
+     * recorded in {@code stateDir} and part classes without changed entries are
+     * not even rendered again.
+     * <p>
+     * This helps to stay below the limits of the Java class file format (e.g. 65535
+     * constant pool entries) for huge properties files.
+     * <p>
+     * Only supported by the templates <code>keys</code> and <code>values</code>.
+     * The classes of the templates <code>bundle</code> and <code>enum</code> (the
+     * ordinals of an enum must cover all keys) and of custom templates are never
+     * distributed.
+     * <p>
+     * A value less than 1 means no limit.
+     */
+    @Parameter(property = "properties-constants.maxKeysPerClass", defaultValue = "0")
+    private int maxKeysPerClass;
+
+    /**
+     * Maximum size in bytes of a generated Java file.
+     * <p>
+     * If the Java file for a properties file would be larger, the constants are
+     * distributed over several part classes like described for
+     * {@code maxKeysPerClass}. The number of part classes is calculated from the
+     * size of the complete Java file.
+     * <p>
+     * A value less than 1 means no limit.
+     */
+    @Parameter(property = "properties-constants.maxSourceSize", defaultValue = "0")
+    private int maxSourceSize;
+
+    /**
+     * Whether to merge the locale variants of a resource bundle into one class.
+     * <p>
+     * By default properties files that result in the same class (like
+     * {@code messages.properties} and {@code messages_de.properties}) are
+     * reported as error. If {@code mergeLocales} is true, all locale variants of a
+     * resource bundle are read together (in parallel, if {@code parallel} is true)
+     * and one class is generated from the union of their keys. The values are
+     * taken from the properties file without locale, if a key is missing there,
+     * from the first locale variant containing it.
+     * <p>
+     * Keys missing in a locale variant and keys only found in a locale variant
+     * are reported as warning.
+     */
+    @Parameter(property = "properties-constants.mergeLocales", defaultValue = "false")
+    private boolean mergeLocales;
+
+    /**
+     * Whether to write a report of the time spent and the bytes allocated in the
+     * phases of the generation: scanning, cleanup, fingerprinting (incremental),
+     * parsing, building the template model, rendering and writing.
+     * <p>
+     * The report is written as JSON to {@code reportDir} and contains the totals
+     * of the phases and the slowest properties files. Additionally a one-line
+     * summary is logged. Allocated bytes are only reported if supported by the JVM.
+     */
+    @Parameter(property = "properties-constants.report", defaultValue = "false")
+    private boolean report;
+
+    /**
+     * Directory to write the report to. Every execution has its own report.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/prop-constants-report")
+    private File reportDir;
+
     private TemplateHandler tmplHandler;
 
+    /**
+     * The other locale variants of a bundle, when merging locales. Key is the full
+     * class name. Only written before the generation starts.
+     */
+    private final Map<String, List<GeneratorRequest>> localeVariants = new HashMap<>();
+
+    /** The requests found by the last scan. */
+    private Collection<GeneratorRequest> scannedRequests = Collections.emptyList();
+
+    /**
+     * Whether the last scan found all properties files. Not the case if the scan
+     * failed or the {@link BuildContext} of an IDE only reported the changed
+     * files. Only a complete {@link #scannedRequests} may be used to detect
+     * orphaned Java files.
+     */
+    private boolean scanComplete;
+
     private List<String> errorMessages = new ArrayList<>();
 
+    private int writtenCount;
+
+    private int unchangedCount;
+
+    /** The report of this execution, null if no report is requested. */
+    private GenerationReport genReport;
+
+    /** The manifest of the current generation pass, null if not incremental. */
+    private GenerationManifest passManifest;
+
+    /**
+     * The templates loaded by the template in previous passes, null if not
+     * incremental.
+     */
+    private TemplateDependencies passDependencies;
+
+    /** The timer of the current generation pass. */
+    private PhaseTimer passTimer;
+
+    /**
+     * The fingerprint of the template and configuration of the current pass, null
+     * if not incremental. Part of the fingerprints of the part classes.
+     */
+    private String passFingerprint;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
 
         checkConfig();
 
         if (!skip) {
-
             checkResourceDir();
+            generateAll();
+        } else {
+            getLog().info("Skipped - skip == true");
+        }
+
+        addSourceRoots();
+
+        if (!errorMessages.isEmpty()) {
+            throw new MojoExecutionException(errorMessages.stream().collect(Collectors.joining("\n")));
+        }
+    }
+
+    /**
+     * Adds the output directory as compile source root to the project (and as
+     * resource directory, if values are externalized).
+     */
+    // package visibility for the aggregate goal
+    void addSourceRoots() {
+        if (outputDir.isDirectory()) {
+            project.addCompileSourceRoot(outputDir.getPath());
+            if (VALUES_TEMPLATE_ID.equals(template)
+                    && templateOptions.containsKey(BuiltinTemplateEmitter.MAX_CONSTANT_VALUE_SIZE_OPTION)) {
+                addValuesResources();
+            }
+        }
+    }
+
+    /**
+     * Generates the Java classes for all found properties files.
+     *
+     * @throws MojoExecutionException on template problems
+     */
+    // package visibility for the watch goal
+    void generateAll() throws MojoExecutionException {
+        generate(scanAll());
+        finishPass();
+    }
+
+    /**
+     * Scans for properties files and selects the outdated requests. First stage
+     * of {@link #generateAll()}, followed by the generation of the outdated
+     * requests and {@link #finishPass()}.
+     *
+     * @return Map of the outdated requests to their fingerprint
+     */
+    // package visibility for testing
+    Map<GeneratorRequest, String> scanAll() {
+        return scanAll(null);
+    }
+
+    /**
+     * Like {@link #scanAll()}, but uses the result of {@link #submitScan} if
+     * available.
+     *
+     * @param resourceScan the submitted scan of the resource directory, might be
+     *                     null
+     * @return Map of the outdated requests to their fingerprint
+     */
+    // package visibility for the aggregate goal
+    Map<GeneratorRequest, String> scanAll(final Future<List<String>> resourceScan) {
+        startPass();
+
+        passTimer.start();
+        cleanupDeletes();
+        passTimer.stop(Phase.CLEANUP);
+
+        passTimer.start();
+        scannedRequests = scanProperties(resourceScan);
+        passTimer.stop(Phase.SCAN);
+
+        if (passManifest != null && scanComplete) {
+            passTimer.start();
+            deleteOrphans(passManifest, scannedRequests);
+            passTimer.stop(Phase.CLEANUP);
+        }
+        return selectForPass(scannedRequests);
+    }
+
+    /**
+     * Submits the scan of the resource directory to the executor. Only the
+     * directory is read, nothing is reported. The scan is evaluated by
+     * {@link #scanAll(Future)} on the calling thread.
+     *
+     * @param executor the executor
+     * @return the future of the found properties files, null if the build context
+     *         has to scan the directory
+     */
+    // package visibility for the aggregate goal
+    Future<List<String>> submitScan(final ExecutorService executor) {
+        return isCommandLineBuild() ? executor.submit(this::scanResourceDir) : null;
+    }
+
+    /**
+     * Generates the Java classes again after files changed.
+     * <p>
+     * If only properties files found by the last scan were modified, only their
+     * Java classes are generated again. Otherwise (a properties file was created
+     * or deleted) everything is done like in {@link #generateAll()}. Changed
+     * files that are not included properties files are ignored.
+     *
+     * @param changedFiles the changed files
+     * @throws MojoExecutionException on template problems
+     */
+    // package visibility for the watch goal
+    void regenerate(final Collection<Path> changedFiles) throws MojoExecutionException {
+        final Map<Path, GeneratorRequest> byFile = new HashMap<>();
+        for (final GeneratorRequest genReq : scannedRequests) {
+            byFile.put(normalize(genReq.getPropertiesFile()), genReq);
+            for (final GeneratorRequest variant : getLocaleVariants(genReq)) {
+                byFile.put(normalize(variant.getPropertiesFile()), genReq);
+            }
+        }
+
+        final Path resourcePath = normalize(resourceDir);
+        final ResourceScanner filter = new ResourceScanner(resourcePath, includes, excludes);
+        final Set<GeneratorRequest> changed = new LinkedHashSet<>();
+        for (final Path file : changedFiles) {
+            final Path path = file.toAbsolutePath().normalize();
+            if (!path.startsWith(resourcePath)
+                    || !filter.isIncluded(resourcePath.relativize(path).toString().replace('\\', '/'))) {
+                continue;
+            }
+            final GeneratorRequest genReq = byFile.get(path);
+            if (genReq == null || !Files.isRegularFile(path)) {
+                generateAll();
+                return;
+            }
+            changed.add(genReq);
+        }
+
+        if (!changed.isEmpty()) {
+            startPass();
+            generate(selectForPass(changed));
+            finishPass();
+        }
+    }
 
+    private static Path normalize(final File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private void startPass() {
+        genReport = report ? new GenerationReport(executionName()) : null;
+        passTimer = newTimer();
+        passManifest = incremental ? loadManifest() : null;
+        writtenCount = 0;
+        unchangedCount = 0;
+        if (tmplHandler == null) {
             tmplHandler = new TemplateHandler(project.getBasedir(), sourceEncoding);
+        }
+    }
+
+    /**
+     * Creates a timer for the report. Measures nothing if no report is requested.
+     *
+     * @return the timer
+     */
+    private PhaseTimer newTimer() {
+        return report ? new PhaseTimer() : PhaseTimer.disabled();
+    }
 
-            cleanupDeletes();
+    private Map<GeneratorRequest, String> selectForPass(final Collection<GeneratorRequest> genRequests) {
+        passTimer.start();
+        passFingerprint = passManifest == null ? null : configFingerprint();
+        passDependencies = passManifest == null ? null : loadTemplateDependencies();
+        final String changedTemplate = passDependencies == null ? null : passDependencies.findChanged(tmplHandler);
+        if (changedTemplate != null) {
+            getLog().info("Template " + changedTemplate + " changed, generating all Java files");
+            // Requests not processed in this pass are processed in a later one.
+            scannedRequests.forEach(passManifest::invalidate);
+        }
+        final Map<GeneratorRequest, String> outdated = selectOutdated(genRequests, passManifest, passFingerprint);
+        passTimer.stop(Phase.FINGERPRINT);
+        logGenerationStatus(genRequests.size(), outdated.size());
+        return outdated;
+    }
 
-            final Collection<GeneratorRequest> genRequests = scanProperties();
+    /**
+     * Finishes a generation pass: Stores the manifest and logs the result.
+     */
+    // package visibility for the aggregate goal
+    void finishPass() {
+        if (passManifest != null) {
+            if (scanComplete) {
+                passManifest.retain(scannedRequests);
+            }
+            storeManifest(passManifest);
+            storeTemplateDependencies(passDependencies);
+        }
 
-            if (genRequests.isEmpty()) {
-                getLog().info("No properties files found - no Java classes to generate");
-            } else {
-                getLog().info("Generating " + genRequests.size() + " Java constant class"
-                        + (genRequests.size() == 1 ? "" : "es"));
+        if (writtenCount + unchangedCount > 0) {
+            getLog().info("Java files: " + writtenCount + " written, " + unchangedCount + " unchanged");
+        }
+
+        if (genReport != null) {
+            genReport.addExecution(passTimer);
+            writeReport();
+        }
+    }
+
+    /**
+     * Returns the collected error messages and clears them.
+     *
+     * @return the error messages, empty if no error occurred
+     */
+    // package visibility for the watch goal
+    List<String> takeErrorMessages() {
+        final List<String> messages = errorMessages;
+        errorMessages = new ArrayList<>();
+        return messages;
+    }
+
+    // package visibility for the aggregate goal
+    void setBuildContext(final BuildContext buildContext) {
+        this.buildContext = buildContext;
+    }
+
+    // package visibility for the watch goal
+    boolean isSkip() {
+        return skip;
+    }
+
+    // package visibility for the watch goal
+    File getResourceDir() {
+        return resourceDir;
+    }
+
+    /**
+     * Returns the file of the custom template, if it is a file in the project.
+     *
+     * @return the template file, null for built-in templates or templates from
+     *         the classpath
+     */
+    // package visibility for the watch goal
+    File getCustomTemplateFile() {
+        if (getTemplateFile().equals(this.template)) {
+            final File file = new File(project.getBasedir(), this.template);
+            if (file.isFile()) {
+                return file;
             }
+        }
+        return null;
+    }
 
-            for (final GeneratorRequest genReq : genRequests) {
-                getLog().debug("Generating constants for " + genReq.getPropertiesFileName() + ": "
-                        + genReq.getFullClassName());
-                createConstants(genReq);
+    /**
+     * Adds the output directory as resource directory for the resources with
+     * externalized values.
+     */
+    private void addValuesResources() {
+        for (final Resource resource : project.getResources()) {
+            if (outputDir.getPath().equals(resource.getDirectory())) {
+                return;
             }
-        } else {
-            getLog().info("Skipped - skip == true");
         }
+        final Resource resource = new Resource();
+        resource.setDirectory(outputDir.getPath());
+        resource.addInclude("**/*" + BuiltinTemplateEmitter.VALUES_RESOURCE_SUFFIX);
+        project.addResource(resource);
+    }
 
-        if (outputDir.isDirectory()) {
-            project.addCompileSourceRoot(outputDir.getPath());
+    private void writeReport() {
+        genReport.finish();
+        getLog().info(genReport.summary());
+        final File reportFile = new File(reportDir, executionName() + GenerationReport.FILE_SUFFIX);
+        try {
+            genReport.write(reportFile);
+        } catch (final IOException e) {
+            getLog().warn("Could not write report " + reportFile + ": " + e);
         }
+    }
 
-        if (!errorMessages.isEmpty()) {
-            throw new MojoExecutionException(errorMessages.stream().collect(Collectors.joining("\n")));
+    private void logGenerationStatus(final int total, final int outdated) {
+        if (total == 0) {
+            getLog().info("No properties files found - no Java classes to generate");
+        } else if (outdated == 0) {
+            getLog().info("All " + javaClasses(total) + " up to date");
+        } else if (outdated == total) {
+            getLog().info("Generating " + javaClasses(outdated));
+        } else {
+            getLog().info("Generating " + javaClasses(outdated) + ", " + (total - outdated) + " up to date");
         }
     }
 
-    private void checkConfig() throws MojoExecutionException {
+    // package visibility for the watch goal
+    void checkConfig() throws MojoExecutionException {
         if (!SourceVersion.isName(basePackage)) {
             throw new MojoExecutionException("Configured basePackage \"" + basePackage + "\" is invalid.");
         }
@@ -237,9 +724,28 @@ public class GenerateMojo extends AbstractMojo {
         if (classNameSuffix.length() != 0 && !SourceVersion.isIdentifier(classNameSuffix)) {
             throw new MojoExecutionException("Configured classNameSuffix \"" + classNameSuffix + "\" is invalid.");
         }
+
+        if (!STREAMING_MODEL.equals(templateModel) && !MATERIALIZED_MODEL.equals(templateModel)) {
+            throw new MojoExecutionException("Configured templateModel \"" + templateModel
+                    + "\" is invalid. Use \"" + STREAMING_MODEL + "\" or \"" + MATERIALIZED_MODEL + "\".");
+        }
+
+        // The indices of the lookup method would only be unique within a part class
+        if (KEYS_TEMPLATE_ID.equals(template) && (maxKeysPerClass > 0 || maxSourceSize > 0)
+                && "true".equals(templateOptions.get(BuiltinTemplateEmitter.GEN_LOOKUP_METHOD_OPTION))) {
+            throw new MojoExecutionException("Template option " + BuiltinTemplateEmitter.GEN_LOOKUP_METHOD_OPTION
+                    + " can't be combined with maxKeysPerClass or maxSourceSize.");
+        }
+
+        try {
+            BuiltinTemplateEmitter.selectExternalValues(Collections.emptyList(), templateOptions);
+        } catch (final IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
     }
 
-    private void checkResourceDir() throws MojoExecutionException {
+    // package visibility for the watch goal
+    void checkResourceDir() throws MojoExecutionException {
 
         if (!resourceDir.exists()) {
             throw new MojoExecutionException("Configured resourceDir \"" + resourceDir + "\" does not exist.");
@@ -253,31 +759,122 @@ public class GenerateMojo extends AbstractMojo {
     /**
      * Scan for properties files.
      *
+     * @param resourceScan the submitted scan of the resource directory, might be
+     *                     null
      * @return Collection of GeneratorRequests
      */
-    private Collection<GeneratorRequest> scanProperties() {
-        final Scanner scanner = buildContext.newScanner(resourceDir);
-        scanner.setIncludes(includes);
-        scanner.setExcludes(excludes);
-        scanner.scan();
-
+    private Collection<GeneratorRequest> scanProperties(final Future<List<String>> resourceScan) {
+        localeVariants.clear();
         final Map<String, GeneratorRequest> genRequests = new LinkedHashMap<>();
-        for (final String propFile : scanner.getIncludedFiles()) {
+        for (final String propFile : findPropertiesFiles(resourceScan)) {
             final GeneratorRequest gr = buildGeneratorRequest(propFile);
-            if (!genRequests.containsKey(gr.getFullClassName())) {
+            final GeneratorRequest existing = genRequests.get(gr.getFullClassName());
+            if (existing == null) {
                 genRequests.put(gr.getFullClassName(), gr);
+            } else if (mergeLocales && existing.getBundleName().equals(gr.getBundleName())) {
+                addLocaleVariant(genRequests, existing, gr);
             } else {
                 addError(gr.getPropertiesFile(), 0, 0, "Would create same constant class " + gr.getFullClassName()
-                        + " as " + genRequests.get(gr.getFullClassName()).getPropertiesFileName());
+                        + " as " + existing.getPropertiesFileName());
             }
         }
         return genRequests.values();
     }
 
+    /**
+     * Finds the included properties files in the resource directory.
+     * <p>
+     * On the command line the {@link ResourceScanner} is used, that compiles the
+     * patterns once and skips directories that can't contain included files.
+     * Within an IDE the scanner of the {@link BuildContext} is used, as it might
+     * only report changed files.
+     *
+     * @return the names of the properties files relative to the resource
+     *         directory
+     */
+    private String[] findPropertiesFiles(final Future<List<String>> resourceScan) {
+        if (isCommandLineBuild()) {
+            try {
+                final List<String> found = resourceScan == null ? scanResourceDir() : waitForScan(resourceScan);
+                scanComplete = true;
+                return found.toArray(new String[0]);
+            } catch (final IOException e) {
+                addError(resourceDir, 0, 0, "Could not scan " + resourceDir + " (" + e + ")", e);
+                scanComplete = false;
+                return new String[0];
+            }
+        }
+        // an incremental build context only reports the changed files
+        scanComplete = !buildContext.isIncremental();
+        final Scanner scanner = buildContext.newScanner(resourceDir);
+        scanner.setIncludes(includes);
+        scanner.setExcludes(excludes);
+        scanner.scan();
+        return scanner.getIncludedFiles();
+    }
+
+    private List<String> scanResourceDir() throws IOException {
+        return new ResourceScanner(resourceDir.toPath(), includes, excludes).scan();
+    }
+
+    private static List<String> waitForScan(final Future<List<String>> resourceScan) throws IOException {
+        try {
+            return resourceScan.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scanning");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Whether the build runs with the default, non-incremental
+     * {@link BuildContext} of the command line.
+     *
+     * @return true on the command line
+     */
+    private boolean isCommandLineBuild() {
+        return buildContext instanceof DefaultBuildContext;
+    }
+
+    /**
+     * Records a locale variant of a bundle. The properties file without locale
+     * becomes the main request of the bundle.
+     *
+     * @param genRequests the requests per class name
+     * @param existing    the current main request of the bundle
+     * @param variant     the new request for the same bundle
+     */
+    private void addLocaleVariant(final Map<String, GeneratorRequest> genRequests, final GeneratorRequest existing,
+            final GeneratorRequest variant) {
+        final List<GeneratorRequest> variants = localeVariants.computeIfAbsent(existing.getFullClassName(),
+                k -> new ArrayList<>());
+        if (variant.getLocale().isEmpty() && !existing.getLocale().isEmpty()) {
+            genRequests.put(existing.getFullClassName(), variant);
+            variants.add(0, existing);
+        } else {
+            variants.add(variant);
+        }
+    }
+
     private void cleanupDeletes() {
         /*
          * The delete scanner will only find something when run within Eclipse.
+         * On the command line orphans are detected via the generation manifest,
+         * so the resource directory isn't walked a second time.
          */
+        if (isCommandLineBuild()) {
+            return;
+        }
         final Scanner scanner = buildContext.newDeleteScanner(resourceDir);
         scanner.setIncludes(includes);
         scanner.setExcludes(excludes);
@@ -298,108 +895,975 @@ public class GenerateMojo extends AbstractMojo {
         }
     }
 
-    private void createConstants(final GeneratorRequest genReq) throws MojoExecutionException {
-
-        getLog().debug("Creating " + genReq.getFullClassName() + " from " + genReq.getPropertiesFileName());
-
-        final File propFile = genReq.getPropertiesFile();
+    private static String javaClasses(final int count) {
+        return count + " Java constant class" + (count == 1 ? "" : "es");
+    }
 
-        buildContext.removeMessages(propFile);
+    /**
+     * Returns the execution id usable as part of a file name.
+     *
+     * @return the sanitized execution id
+     */
+    private String executionName() {
+        return executionId == null ? "default" : executionId.replaceAll("[^\\w.-]", "_");
+    }
 
-        final Properties props = new OrderedProperties();
-        try (InputStream is = new FileInputStream(propFile)) {
-            if (genReq.isXmlProperties()) {
-                props.loadFromXML(is);
-            } else {
-                props.load(is);
-            }
+    private GenerationManifest loadManifest() {
+        final GenerationManifest manifest = new GenerationManifest(
+                new File(stateDir, executionName() + GenerationManifest.FILE_SUFFIX));
+        try {
+            manifest.load();
         } catch (final IOException e) {
-            addError(propFile, 0, 0, "Error loading properties file: " + e.getMessage(), e);
-            return;
+            getLog().warn("Ignoring unreadable manifest " + manifest.getFile() + ": " + e);
         }
+        return manifest;
+    }
 
-        final File javaFile = genReq.getJavaFile();
-
-        javaFile.getParentFile().mkdirs();
-
+    private void storeManifest(final GenerationManifest manifest) {
         try {
-            createStringConstants(genReq, props);
-        } catch (TemplateNotFoundException e) {
-            throw new MojoExecutionException("Code template not found: " + e.getTemplateName(), e);
-        } catch (final ParseException e) {
-            throw new MojoExecutionException("Error parsing template:" + e.getMessage(), e);
-        } catch (TemplateException e) {
-            final String tmplName = e.getEnvironment().getMainTemplate().getName();
-            throw new MojoExecutionException("Error in template processing: " + tmplName + " (" + e.getMessage() + ")",
-                    e);
+            manifest.store();
         } catch (final IOException e) {
-            addError(genReq.getPropertiesFile(), 0, 0,
-                    "Error generating Java file " + genReq.getJavaFileName() + " (" + e.toString() + ")", e);
-        } catch (final InvalidPropertyKeyException e) {
-            addError(propFile, 0, 0, "Properties file " + propFile + " contains invalid key: " + e.getMessage(), e);
+            getLog().warn("Could not write manifest " + manifest.getFile() + ": " + e);
         }
     }
 
     /**
-     * Creates the java constants file.
+     * Deletes Java files generated by a previous build for a properties file that
+     * is gone or now results in another Java file.
+     * <p>
+     * Java files recorded by the manifest of another execution are not deleted,
+     * as executions might share the output directory.
      *
-     * @param genRequest {@link GeneratorRequest}
-     * @param props      loaded properties
-     * @throws ParseException              invalid template, thrown by Freemarker
-     * @throws TemplateException           runtime problem in template processing,
-     *                                     thrown by Freemarker
-     * @throws TemplateNotFoundException   thrown by Freemarker
-     * @throws IOException                 template loading or writing the Java file
-     *                                     failed
-     * @throws InvalidPropertyKeyException the properties contain a key that can't
-     *                                     be translated to a Java variable/constant
-     *                                     name
+     * @param manifest    the manifest of the previous build
+     * @param genRequests the current requests
      */
-    private void createStringConstants(final GeneratorRequest genRequest, final Properties props)
-            throws IOException, TemplateException {
+    private void deleteOrphans(final GenerationManifest manifest, final Collection<GeneratorRequest> genRequests) {
+        deleteJavaFiles(manifest, manifest.findOrphans(genRequests));
+    }
 
-        final Map<String, Object> model = buildModel(genRequest, props);
+    /**
+     * Deletes orphaned Java files, unless they are recorded by the manifest of
+     * another execution.
+     *
+     * @param manifest the manifest of this execution
+     * @param orphans  the orphaned Java files, relative to the output directory
+     */
+    private void deleteJavaFiles(final GenerationManifest manifest, final Set<String> orphans) {
+        if (orphans.isEmpty()) {
+            return;
+        }
+        orphans.removeAll(getForeignJavaFileNames(manifest));
+
+        for (final String javaFileName : orphans) {
+            final File javaFile = new File(outputDir, javaFileName);
+            try {
+                if (Files.deleteIfExists(javaFile.toPath())) {
+                    getLog().info("Deleted orphaned " + (javaFileName.endsWith(".java") ? "Java " : "")
+                            + "file " + javaFileName);
+                    buildContext.refresh(javaFile);
+                }
+                Files.deleteIfExists(partCacheFile(javaFileName).toPath());
+            } catch (final IOException e) {
+                addError(javaFile, 0, 0, "Could not delete: " + javaFile + " (" + e + ")", e);
+            }
+        }
+    }
+
+    /**
+     * Collects the Java files recorded in the manifests of other executions.
+     *
+     * @param manifest the manifest of this execution
+     * @return the Java files, relative to the output directory
+     */
+    private Set<String> getForeignJavaFileNames(final GenerationManifest manifest) {
+        final Set<String> javaFileNames = new HashSet<>();
+        final File[] manifestFiles = stateDir
+                .listFiles((dir, name) -> name.endsWith(GenerationManifest.FILE_SUFFIX));
+        if (manifestFiles != null) {
+            for (final File file : manifestFiles) {
+                if (!file.equals(manifest.getFile())) {
+                    final GenerationManifest other = new GenerationManifest(file);
+                    try {
+                        other.load();
+                        javaFileNames.addAll(other.getJavaFileNames());
+                    } catch (final IOException e) {
+                        getLog().warn("Ignoring unreadable manifest " + file + ": " + e);
+                    }
+                }
+            }
+        }
+        return javaFileNames;
+    }
+
+    /**
+     * Selects the requests that need to be processed.
+     *
+     * @param genRequests all requests
+     * @param manifest          the manifest of the previous build or null if not
+     *                          building incremental
+     * @param configFingerprint the fingerprint of the template and configuration
+     * @return Map of the outdated requests to their fingerprint (null if
+     *         not building incremental)
+     */
+    private Map<GeneratorRequest, String> selectOutdated(final Collection<GeneratorRequest> genRequests,
+            final GenerationManifest manifest, final String configFingerprint) {
+
+        final Map<GeneratorRequest, String> outdated = new LinkedHashMap<>();
+        if (manifest == null) {
+            genRequests.forEach(gr -> outdated.put(gr, null));
+            return outdated;
+        }
+
+        for (final GeneratorRequest genReq : genRequests) {
+            final String fingerprint = requestFingerprint(genReq, configFingerprint);
+            if (manifest.isUpToDate(genReq, fingerprint)) {
+                getLog().debug("Up to date: " + genReq.getFullClassName());
+            } else {
+                outdated.put(genReq, fingerprint);
+            }
+        }
+        return outdated;
+    }
+
+    private TemplateDependencies loadTemplateDependencies() {
+        final TemplateDependencies dependencies = new TemplateDependencies(
+                new File(stateDir, executionName() + TemplateDependencies.FILE_SUFFIX));
+        try {
+            dependencies.load();
+        } catch (final IOException e) {
+            getLog().warn("Ignoring unreadable template dependencies " + dependencies.getFile() + ": " + e);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Records the templates loaded by the template with the fingerprints of their
+     * current sources.
+     *
+     * @param dependencies the dependencies loaded at the start of the pass, null
+     *                     if not incremental
+     */
+    private void storeTemplateDependencies(final TemplateDependencies dependencies) {
+        if (dependencies == null) {
+            return;
+        }
+        dependencies.update(tmplHandler, tmplHandler.getDependencies(getTemplateFile()));
+        try {
+            dependencies.store();
+        } catch (final IOException e) {
+            getLog().warn("Could not write template dependencies " + dependencies.getFile() + ": " + e);
+        }
+    }
 
-        final String templateFile;
+    /**
+     * Creates the fingerprint of the configuration and the template. The templates
+     * loaded by the template are checked separately, see
+     * {@link TemplateDependencies}.
+     *
+     * @return the fingerprint or null, if the template was not found
+     */
+    private String configFingerprint() {
+        final Fingerprint fingerprint = new Fingerprint();
+        fingerprint.add(getClass().getPackage().getImplementationVersion());
+        fingerprint.add(basePackage).add(classNameSuffix).add(flattenPackage).add(sourceEncoding).add(template);
+        fingerprint.add(templateModel);
+        fingerprint.add(String.valueOf(Math.max(maxKeysPerClass, 0)))
+                .add(String.valueOf(Math.max(maxSourceSize, 0))).add(mergeLocales);
+        new TreeMap<>(templateOptions).forEach((k, v) -> fingerprint.add(k).add(v));
+        try {
+            if (tmplHandler.addTemplateSource(getTemplateFile(), fingerprint)) {
+                return fingerprint.toHex();
+            }
+        } catch (final IOException e) {
+            getLog().debug("Can't read template " + getTemplateFile() + ": " + e);
+        }
+        // Template problems are reported when generating
+        return null;
+    }
 
+    private String requestFingerprint(final GeneratorRequest genReq, final String configFingerprint) {
+        if (configFingerprint == null) {
+            return null;
+        }
+        try {
+            final Fingerprint fingerprint = new Fingerprint().add(configFingerprint)
+                    .add(genReq.getPropertiesFileName()).add(genReq.getJavaFileName())
+                    .addFile(genReq.getPropertiesFile());
+            for (final GeneratorRequest variant : getLocaleVariants(genReq)) {
+                fingerprint.add(variant.getPropertiesFileName()).addFile(variant.getPropertiesFile());
+            }
+            return fingerprint.toHex();
+        } catch (final IOException e) {
+            // Loading problems are reported when generating
+            return null;
+        }
+    }
+
+    /**
+     * Processes the requests, sequentially or in parallel.
+     * <p>
+     * The results are reported in the order of the requests.
+     *
+     * @param genRequests Map of the requests to process to their fingerprint
+     * @throws MojoExecutionException on template problems
+     */
+    private void generate(final Map<GeneratorRequest, String> genRequests) throws MojoExecutionException {
+
+        final int threadCount = Math.min(genRequests.size(),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+
+        if (!parallel || threadCount <= 1) {
+            for (final Map.Entry<GeneratorRequest, String> entry : genRequests.entrySet()) {
+                reportResult(createConstants(entry.getKey()), entry.getValue(), passManifest);
+            }
+            return;
+        }
+
+        getLog().debug("Generating with " + threadCount + " threads");
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount, r -> {
+            final Thread thread = new Thread(r, "prop-constants-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            reportResults(genRequests, submit(genRequests.keySet(), executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits the processing of the requests to the executor.
+     *
+     * @param genRequests the requests to process
+     * @param executor    the executor
+     * @return the futures of the results in the order of the requests
+     */
+    // package visibility for the aggregate goal
+    List<Future<GenerationResult>> submit(final Collection<GeneratorRequest> genRequests,
+            final ExecutorService executor) {
+        final List<Future<GenerationResult>> futures = new ArrayList<>(genRequests.size());
+        for (final GeneratorRequest genReq : genRequests) {
+            futures.add(executor.submit(() -> createConstants(genReq)));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for the results of submitted requests and reports them in the order of
+     * the requests.
+     *
+     * @param genRequests Map of the processed requests to their fingerprint
+     * @param futures     the futures of the results, as returned by
+     *                    {@link #submit(Collection, ExecutorService)}
+     * @throws MojoExecutionException on template problems
+     */
+    // package visibility for the aggregate goal
+    void reportResults(final Map<GeneratorRequest, String> genRequests, final List<Future<GenerationResult>> futures)
+            throws MojoExecutionException {
+        int idx = 0;
+        for (final String fingerprint : genRequests.values()) {
+            reportResult(waitFor(futures.get(idx++)), fingerprint, passManifest);
+        }
+    }
+
+    private static GenerationResult waitFor(final Future<GenerationResult> future) throws MojoExecutionException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while generating Java classes", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MojoExecutionException("Error generating Java classes: " + cause, cause);
+        }
+    }
+
+    /**
+     * Reports the result of a request. Logs messages, reports errors and updates
+     * the manifest.
+     *
+     * @param result      the result to report
+     * @param fingerprint the fingerprint of the request, might be null
+     * @param manifest    the manifest to update, null if not building incremental
+     * @throws MojoExecutionException if the result contains a fatal error
+     */
+    private void reportResult(final GenerationResult result, final String fingerprint,
+            final GenerationManifest manifest) throws MojoExecutionException {
+
+        final GeneratorRequest genReq = result.getRequest();
+        getLog().debug("Generating constants for " + genReq.getPropertiesFileName() + ": "
+                + genReq.getFullClassName());
+        result.getDebugMessages().forEach(getLog()::debug);
+
+        buildContext.removeMessages(genReq.getPropertiesFile());
+        for (final GeneratorRequest variant : getLocaleVariants(genReq)) {
+            buildContext.removeMessages(variant.getPropertiesFile());
+        }
+
+        if (result.getFatalError() != null) {
+            throw result.getFatalError();
+        }
+
+        for (final GenerationResult.Message msg : result.getWarnings()) {
+            buildContext.addMessage(msg.getFile(), msg.getLine(), msg.getColumn(), msg.getText(),
+                    BuildContext.SEVERITY_WARNING, null);
+            getLog().warn(msg.getFile().getPath() + ": " + msg.getText());
+        }
+
+        for (final GenerationResult.Message msg : result.getErrors()) {
+            addError(msg.getFile(), msg.getLine(), msg.getColumn(), msg.getText(), msg.getCause());
+        }
+
+        for (final File javaFile : result.getWrittenFiles()) {
+            buildContext.refresh(javaFile);
+        }
+        if (genReport != null) {
+            genReport.addResult(result);
+        }
+        writtenCount += result.getWrittenJavaFiles();
+        unchangedCount += result.getUnchangedJavaFiles();
+
+        if (manifest != null) {
+            if (result.getStatus() == GenerationResult.Status.FAILED) {
+                manifest.invalidate(genReq);
+            } else {
+                deleteJavaFiles(manifest, manifest.update(genReq, fingerprint, result.getFileNames()));
+            }
+        }
+    }
+
+    /**
+     * Creates the constants class for a request.
+     * <p>
+     * Might be called concurrently for different requests. So it must not change
+     * the state of the Mojo, log or use the {@link BuildContext}. Everything is
+     * recorded in the returned result.
+     *
+     * @param genReq the generator request
+     * @return the result
+     */
+    private GenerationResult createConstants(final GeneratorRequest genReq) {
+
+        final GenerationResult result = new GenerationResult(genReq, newTimer());
+        result.debug("Creating " + genReq.getFullClassName() + " from " + genReq.getPropertiesFileName());
+
+        final List<GeneratorRequest> variants = getLocaleVariants(genReq);
+        result.getTimer().start();
+        final Map<String, PropEntry> entries = variants.isEmpty() ? loadEntries(genReq, result)
+                : loadMergedEntries(genReq, variants, result);
+        // custom templates might not use the constant names, the bundle template doesn't create constants
+        final boolean valid = entries != null
+                && (!createsConstants() || checkConstants(genReq, entries, result));
+        result.getTimer().stop(Phase.PARSE);
+        if (!valid) {
+            return result;
+        }
+
+        try {
+            createStringConstants(genReq, entries, result);
+        } catch (TemplateNotFoundException e) {
+            result.setFatalError(new MojoExecutionException("Code template not found: " + e.getTemplateName(), e));
+        } catch (final ParseException e) {
+            result.setFatalError(new MojoExecutionException("Error parsing template:" + e.getMessage(), e));
+        } catch (TemplateException e) {
+            final String tmplName = e.getEnvironment().getMainTemplate().getName();
+            result.setFatalError(new MojoExecutionException(
+                    "Error in template processing: " + tmplName + " (" + e.getMessage() + ")", e));
+        } catch (final IOException e) {
+            result.addError(genReq.getPropertiesFile(), 0, 0,
+                    "Error generating Java file " + genReq.getJavaFileName() + " (" + e.toString() + ")", e);
+        }
+        return result;
+    }
+
+    /**
+     * Whether the selected template is a built-in template that creates a
+     * constant for every key.
+     *
+     * @return true for the templates keys, values and enum
+     */
+    private boolean createsConstants() {
+        return KEYS_TEMPLATE_ID.equals(template) || VALUES_TEMPLATE_ID.equals(template)
+                || ENUM_TEMPLATE_ID.equals(template);
+    }
+
+    /**
+     * Checks that the generated class would compile: No two keys are mapped to the
+     * same constant name, no key is mapped to the constant of the properties file
+     * or bundle name and an enum doesn't exceed the byte code limit of its static
+     * initializer.
+     * <p>
+     * Every collision is recorded as error in the given result, too many enum
+     * constants as fatal error.
+     *
+     * @param genReq  the generator request
+     * @param entries the properties entries
+     * @param result  the result to record errors
+     * @return true if the constants are valid
+     */
+    private boolean checkConstants(final GeneratorRequest genReq, final Map<String, PropEntry> entries,
+            final GenerationResult result) {
+        if (ENUM_TEMPLATE_ID.equals(template) && entries.size() > BuiltinTemplateEmitter.MAX_ENUM_CONSTANTS) {
+            result.setFatalError(new MojoExecutionException("Properties file " + genReq.getPropertiesFileName()
+                    + " has " + entries.size() + " keys, but the template enum supports at most "
+                    + BuiltinTemplateEmitter.MAX_ENUM_CONSTANTS + " keys, as the static initializer of an enum is"
+                    + " limited to 64 KB. Use the template keys with maxKeysPerClass instead."));
+            return false;
+        }
+        final Set<String> nameConstants = BuiltinTemplateEmitter.nameConstants(templateOptions);
+        final Map<String, String> keysByName = new HashMap<>();
+        boolean unique = true;
+        for (final PropEntry entry : entries.values()) {
+            if (nameConstants.contains(entry.getConstantName())) {
+                result.addError(genReq.getPropertiesFile(), 0, 0, "Key \"" + entry.getKey()
+                        + "\" would create constant " + entry.getConstantName()
+                        + ", that is already generated for the properties file or bundle name", null);
+                unique = false;
+                continue;
+            }
+            final String otherKey = keysByName.putIfAbsent(entry.getConstantName(), entry.getKey());
+            if (otherKey != null) {
+                result.addError(genReq.getPropertiesFile(), 0, 0, "Key \"" + entry.getKey()
+                        + "\" would create same constant " + entry.getConstantName() + " as key \"" + otherKey + "\"",
+                        null);
+                unique = false;
+            }
+        }
+        return unique;
+    }
+
+    private List<GeneratorRequest> getLocaleVariants(final GeneratorRequest genReq) {
+        final List<GeneratorRequest> variants = localeVariants.get(genReq.getFullClassName());
+        return variants == null ? Collections.emptyList() : variants;
+    }
+
+    /**
+     * Loads the entries of all locale variants of a bundle and merges them.
+     * <p>
+     * The properties files are read in parallel, if {@code parallel} is true.
+     * Missing and additional keys of the locale variants are recorded as warning
+     * in the given result.
+     *
+     * @param genReq   the main generator request of the bundle
+     * @param variants the requests of the other locale variants
+     * @param result   the result to record errors and warnings
+     * @return Map of the (untrimmed) keys to the entries, null on error
+     */
+    private Map<String, PropEntry> loadMergedEntries(final GeneratorRequest genReq,
+            final List<GeneratorRequest> variants, final GenerationResult result) {
+
+        final List<GeneratorRequest> all = new ArrayList<>(variants.size() + 1);
+        all.add(genReq);
+        all.addAll(variants);
+        final List<GenerationResult> loadResults = all.stream().map(GenerationResult::new)
+                .collect(Collectors.toList());
+
+        final IntStream indexes = IntStream.range(0, all.size());
+        final List<Map<String, PropEntry>> loaded = (parallel ? indexes.parallel() : indexes)
+                .mapToObj(i -> loadEntries(all.get(i), loadResults.get(i))).collect(Collectors.toList());
+
+        loadResults.forEach(result::addErrors);
+        if (loaded.contains(null)) {
+            return null;
+        }
+
+        final Map<String, PropEntry> mainEntries = loaded.get(0);
+        final Map<String, PropEntry> merged = new LinkedHashMap<>(mainEntries);
+        for (int i = 1; i < all.size(); i++) {
+            final Map<String, PropEntry> variantEntries = loaded.get(i);
+            variantEntries.forEach(merged::putIfAbsent);
+            compareKeys(genReq, mainEntries, all.get(i), variantEntries, result);
+        }
+        return merged;
+    }
+
+    /**
+     * Records warnings for keys missing in a locale variant or only found in a
+     * locale variant.
+     */
+    private static void compareKeys(final GeneratorRequest genReq, final Map<String, PropEntry> mainEntries,
+            final GeneratorRequest variant, final Map<String, PropEntry> variantEntries,
+            final GenerationResult result) {
+
+        final List<String> missing = mainEntries.keySet().stream().filter(k -> !variantEntries.containsKey(k))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            result.addWarning(variant.getPropertiesFile(), 0, 0, "Missing " + missing.size() + " key(s) of "
+                    + genReq.getPropertiesFileName() + ": " + keyList(missing));
+        }
+
+        final List<String> extra = variantEntries.keySet().stream().filter(k -> !mainEntries.containsKey(k))
+                .collect(Collectors.toList());
+        if (!extra.isEmpty()) {
+            result.addWarning(variant.getPropertiesFile(), 0, 0, "Contains " + extra.size() + " key(s) not in "
+                    + genReq.getPropertiesFileName() + ": " + keyList(extra));
+        }
+    }
+
+    private static String keyList(final List<String> keys) {
+        final String list = String.join(", ", keys.subList(0, Math.min(keys.size(), MAX_REPORTED_KEYS)));
+        return keys.size() > MAX_REPORTED_KEYS ? list + ", ..." : list;
+    }
+
+    /**
+     * Loads the entries of the properties file of a request.
+     * <p>
+     * Errors are recorded in the given result.
+     *
+     * @param genReq the generator request
+     * @param result the result to record errors
+     * @return Map of the (untrimmed) keys to the entries in the order of the
+     *         properties file, null on error
+     */
+    private static Map<String, PropEntry> loadEntries(final GeneratorRequest genReq, final GenerationResult result) {
+        final File propFile = genReq.getPropertiesFile();
+        final Map<String, PropEntry> entries = new LinkedHashMap<>();
+        int line = 0;
+        try {
+            if (genReq.isXmlProperties()) {
+                final Properties props = new OrderedProperties();
+                try (InputStream is = new FileInputStream(propFile)) {
+                    props.loadFromXML(is);
+                }
+                for (final Object key : props.keySet()) {
+                    entries.put((String) key, new PropEntry((String) key, props.getProperty((String) key)));
+                }
+            } else {
+                try (PropertiesReader reader = new PropertiesReader(propFile.toPath())) {
+                    while (reader.next()) {
+                        line = reader.getLine();
+                        entries.put(reader.getKey(), new PropEntry(reader.getKey(), reader.getValue()));
+                    }
+                }
+            }
+            return entries;
+        } catch (final PropertiesParseException e) {
+            result.addError(propFile, e.getLine(), 0, "Error loading properties file: " + e.getMessage(), e);
+        } catch (final IOException e) {
+            result.addError(propFile, 0, 0, "Error loading properties file: " + e.getMessage(), e);
+        } catch (final InvalidPropertyKeyException e) {
+            result.addError(propFile, line, 0,
+                    "Properties file " + propFile + " contains invalid key: " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the java constants file.
+     * <p>
+     * If the configured {@code maxKeysPerClass} or {@code maxSourceSize} is
+     * exceeded, the constants are distributed over several part classes.
+     *
+     * @param genRequest {@link GeneratorRequest}
+     * @param entries    the properties entries
+     * @param result     the result to record the generated Java files
+     * @throws ParseException              invalid template, thrown by Freemarker
+     * @throws TemplateException           runtime problem in template processing,
+     *                                     thrown by Freemarker
+     * @throws TemplateNotFoundException   thrown by Freemarker
+     * @throws IOException                 template loading or writing the Java file
+     *                                     failed
+     */
+    private void createStringConstants(final GeneratorRequest genRequest, final Map<String, PropEntry> entries,
+            final GenerationResult result) throws IOException, TemplateException {
+
+        byte[] content = null;
+        final List<PropEntry> external = selectExternalValues(entries);
+        if (maxKeysPerClass < 1 || entries.size() <= maxKeysPerClass) {
+            content = render(genRequest, entries, external, result.getTimer());
+        }
+        final int partCount = supportsParts() ? partCount(entries.size(), content == null ? 0 : content.length)
+                : 1;
+        if (partCount == 1) {
+            if (content == null) {
+                content = render(genRequest, entries, external, result.getTimer());
+            }
+            writeClass(genRequest, content, external, result);
+            if (passFingerprint != null) {
+                Files.deleteIfExists(partCacheFile(genRequest.getJavaFileName()).toPath());
+            }
+            return;
+        }
+
+        result.debug("Distributing " + entries.size() + " keys over " + partCount + " part classes");
+        final List<Map<String, PropEntry>> parts = BuiltinTemplateEmitter.distribute(entries, partCount);
+        final List<List<PropEntry>> partExternal = new ArrayList<>(partCount);
+        for (final Map<String, PropEntry> part : parts) {
+            partExternal.add(selectExternalValues(part));
+        }
+
+        writeJavaFile(genRequest, renderMain(genRequest, partExternal, result.getTimer()), result);
+        writePartClasses(genRequest, parts, partExternal, result);
+    }
+
+    /**
+     * Only the constants of the templates "keys" and "values" can be distributed
+     * over part interfaces.
+     *
+     * @return whether the template supports part interfaces
+     */
+    private boolean supportsParts() {
+        return KEYS_TEMPLATE_ID.equals(template) || VALUES_TEMPLATE_ID.equals(template);
+    }
+
+    /**
+     * Writes the part interfaces. With incremental builds, a part interface is
+     * only rendered again if its fingerprint changed.
+     *
+     * @param genRequest   the generator request
+     * @param parts        the entries of the part interfaces
+     * @param partExternal the entries with externalized values of the part
+     *                     interfaces
+     * @param result       the result to record the generated Java files
+     * @throws IOException writing a Java file failed
+     */
+    private void writePartClasses(final GeneratorRequest genRequest, final List<Map<String, PropEntry>> parts,
+            final List<List<PropEntry>> partExternal, final GenerationResult result) throws IOException {
+        final PartCache partCache = loadPartCache(genRequest, result);
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                final GeneratorRequest partRequest = BuiltinTemplateEmitter.partRequest(genRequest, i);
+                final String fingerprint = partCache == null ? null
+                        : partFingerprint(partRequest, parts.get(i), result.getTimer());
+                if (fingerprint != null && partCache.isUnchanged(partRequest.getJavaFileName(), fingerprint)
+                        && classExists(partRequest, partExternal.get(i))) {
+                    addUnchangedClass(partRequest, partExternal.get(i), result);
+                } else {
+                    writeClass(partRequest,
+                            renderPart(genRequest, i, parts, partExternal.get(i), result.getTimer()),
+                            partExternal.get(i), result);
+                }
+                if (fingerprint != null) {
+                    partCache.update(partRequest.getJavaFileName(), fingerprint);
+                }
+            }
+        } finally {
+            storePartCache(partCache, result);
+        }
+    }
+
+    /**
+     * Loads the fingerprints of the part classes generated by the previous build.
+     *
+     * @param genRequest the generator request
+     * @param result     the result to record debug messages
+     * @return the part cache or null if not building incremental
+     */
+    private PartCache loadPartCache(final GeneratorRequest genRequest, final GenerationResult result) {
+        if (passFingerprint == null) {
+            return null;
+        }
+        final PartCache partCache = new PartCache(partCacheFile(genRequest.getJavaFileName()));
+        try {
+            partCache.load();
+        } catch (final IOException e) {
+            result.debug("Ignoring unreadable part cache " + partCache.getFile() + ": " + e);
+        }
+        return partCache;
+    }
+
+    private static void storePartCache(final PartCache partCache, final GenerationResult result) {
+        if (partCache == null) {
+            return;
+        }
+        try {
+            partCache.store();
+        } catch (final IOException e) {
+            result.debug("Could not write part cache " + partCache.getFile() + ": " + e);
+        }
+    }
+
+    /**
+     * Returns the file with the fingerprints of the part classes of a Java file.
+     *
+     * @param javaFileName the main Java file, relative to the output directory
+     * @return the cache file
+     */
+    private File partCacheFile(final String javaFileName) {
+        return new File(stateDir, executionName() + "-parts/" + javaFileName + PartCache.FILE_SUFFIX);
+    }
+
+    /**
+     * Creates the fingerprint of a part class from the fingerprint of the
+     * template and configuration, the request and the entries of the part.
+     *
+     * @param partRequest the request of the part class
+     * @param entries     the entries of the part class
+     * @param timer       the timer to record the time
+     * @return the fingerprint
+     */
+    private String partFingerprint(final GeneratorRequest partRequest, final Map<String, PropEntry> entries,
+            final PhaseTimer timer) {
+        timer.start();
+        final Fingerprint fingerprint = new Fingerprint().add(passFingerprint)
+                .add(partRequest.getJavaFileName()).add(partRequest.getFullClassName())
+                .add(partRequest.getPropertiesFileName()).add(partRequest.getBundleName())
+                .add(partRequest.getLocale()).add(partRequest.isXmlProperties());
+        for (final PropEntry entry : entries.values()) {
+            fingerprint.add(entry.getKey()).add(entry.getValue());
+        }
+        final String hex = fingerprint.toHex();
+        timer.stop(Phase.FINGERPRINT);
+        return hex;
+    }
+
+    private static boolean classExists(final GeneratorRequest javaReq, final List<PropEntry> external) {
+        return javaReq.getJavaFile().isFile() && (external.isEmpty() || valuesResourceFile(javaReq).isFile());
+    }
+
+    /**
+     * Records a Java file (and the resource with its externalized values) that
+     * was not generated again, as its content is known to be unchanged.
+     *
+     * @param javaReq  the request of the Java file
+     * @param external the entries with externalized values
+     * @param result   the result to record the files
+     */
+    private static void addUnchangedClass(final GeneratorRequest javaReq, final List<PropEntry> external,
+            final GenerationResult result) {
+        result.addJavaFile(javaReq, false);
+        result.debug("Unchanged part class: " + javaReq.getJavaFile());
+        if (!external.isEmpty()) {
+            result.addResourceFile(valuesResourceName(javaReq), valuesResourceFile(javaReq), false);
+        }
+    }
+
+    /**
+     * Selects the entries with values to store in a resource instead of a
+     * constant. Only supported by the template "values".
+     *
+     * @param entries the properties entries
+     * @return the entries with externalized values, empty if none
+     */
+    private List<PropEntry> selectExternalValues(final Map<String, PropEntry> entries) {
+        if (VALUES_TEMPLATE_ID.equals(template)) {
+            return BuiltinTemplateEmitter.selectExternalValues(entries.values(), templateOptions);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Calculates the number of part classes needed to stay within the configured
+     * {@code maxKeysPerClass} and {@code maxSourceSize}.
+     *
+     * @param keyCount   the number of keys
+     * @param sourceSize the size of the complete Java file, 0 if not rendered
+     * @return 1 if no part classes are needed, else the number of part classes (a
+     *         power of two)
+     */
+    // package visibility for testing
+    int partCount(final int keyCount, final int sourceSize) {
+        int needed = 1;
+        if (maxKeysPerClass > 0) {
+            needed = Math.max(needed, (keyCount + maxKeysPerClass - 1) / maxKeysPerClass);
+        }
+        if (maxSourceSize > 0) {
+            needed = Math.max(needed, (sourceSize + maxSourceSize - 1) / maxSourceSize);
+        }
+        return needed == 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    /**
+     * Writes a Java file and the resource with its externalized values, if their
+     * content changed.
+     *
+     * @param javaReq  the request of the Java file
+     * @param content  the content of the Java file
+     * @param external the entries with externalized values
+     * @param result   the result to record the files
+     * @throws IOException if writing a file failed
+     */
+    private static void writeClass(final GeneratorRequest javaReq, final byte[] content,
+            final List<PropEntry> external, final GenerationResult result) throws IOException {
+        writeJavaFile(javaReq, content, result);
+        if (!external.isEmpty()) {
+            final File resourceFile = valuesResourceFile(javaReq);
+            result.getTimer().start();
+            final boolean written = OutputFiles.writeIfChanged(resourceFile.toPath(),
+                    BuiltinTemplateEmitter.encodeValues(external));
+            result.getTimer().stop(Phase.WRITE);
+            result.addResourceFile(valuesResourceName(javaReq), resourceFile, written);
+            result.debug((written ? "Written: " : "Unchanged: ") + resourceFile);
+        }
+    }
+
+    /**
+     * Returns the name of the resource with the externalized values of a Java
+     * file.
+     *
+     * @param javaReq the request of the Java file
+     * @return the resource name, relative to the output directory
+     */
+    private static String valuesResourceName(final GeneratorRequest javaReq) {
+        final String javaFileName = javaReq.getJavaFileName();
+        return javaFileName.substring(0, javaFileName.lastIndexOf('/') + 1)
+                + BuiltinTemplateEmitter.valuesResourceName(javaReq);
+    }
+
+    private static File valuesResourceFile(final GeneratorRequest javaReq) {
+        return new File(javaReq.getJavaFile().getParentFile(), BuiltinTemplateEmitter.valuesResourceName(javaReq));
+    }
+
+    /**
+     * Writes a Java file, if its content changed.
+     *
+     * @param javaReq the request of the Java file
+     * @param content the content of the Java file
+     * @param result  the result to record the Java file
+     * @throws IOException if writing the Java file failed
+     */
+    private static void writeJavaFile(final GeneratorRequest javaReq, final byte[] content,
+            final GenerationResult result) throws IOException {
+        result.getTimer().start();
+        final boolean written = OutputFiles.writeIfChanged(javaReq.getJavaFile().toPath(), content);
+        result.getTimer().stop(Phase.WRITE);
+        result.addJavaFile(javaReq, written);
+        result.debug((written ? "Written: " : "Unchanged: ") + javaReq.getJavaFile());
+    }
+
+    /**
+     * Renders the java constants class into memory.
+     *
+     * @param genRequest {@link GeneratorRequest}
+     * @param entries    the properties entries
+     * @param external   the entries with externalized values
+     * @param timer      the timer to record the time of model building and
+     *                   rendering
+     * @return the content of the Java file
+     * @throws TemplateException runtime problem in template processing, thrown by
+     *                           Freemarker
+     * @throws IOException       template loading failed
+     */
+    private byte[] render(final GeneratorRequest genRequest, final Map<String, PropEntry> entries,
+            final List<PropEntry> external, final PhaseTimer timer) throws IOException, TemplateException {
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        timer.start();
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(buffer, sourceEncoding))) {
+            // The built-in templates are implemented natively, Freemarker is only
+            // needed for custom templates.
+            switch (this.template) {
+            case KEYS_TEMPLATE_ID:
+                BuiltinTemplateEmitter.emitKeys(genRequest, new ArrayList<>(entries.values()), templateOptions, pw);
+                break;
+            case VALUES_TEMPLATE_ID:
+                BuiltinTemplateEmitter.emitValues(genRequest, new ArrayList<>(entries.values()), external, pw);
+                break;
+            case ENUM_TEMPLATE_ID:
+                BuiltinTemplateEmitter.emitEnum(genRequest, new ArrayList<>(entries.values()), templateOptions, pw);
+                break;
+            case BUNDLE_TEMPLATE_ID:
+                BuiltinTemplateEmitter.emitBundle(genRequest, new ArrayList<>(entries.values()), pw);
+                break;
+            default:
+                final TemplateHashModel model = buildModel(genRequest, entries);
+                timer.stop(Phase.MODEL);
+                timer.start();
+                tmplHandler.process(getTemplateFile(), model, pw);
+                break;
+            }
+        }
+        timer.stop(Phase.RENDER);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Renders the constants class, that implements the part interfaces (templates
+     * "keys" and "values" only).
+     *
+     * @param genRequest   the generator request
+     * @param partExternal the entries with externalized values of the part
+     *                     interfaces
+     * @param timer        the timer to record the time
+     * @return the content of the Java file
+     * @throws IOException writing to the buffer failed
+     */
+    private byte[] renderMain(final GeneratorRequest genRequest, final List<List<PropEntry>> partExternal,
+            final PhaseTimer timer) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        timer.start();
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(buffer, sourceEncoding))) {
+            if (KEYS_TEMPLATE_ID.equals(template)) {
+                BuiltinTemplateEmitter.emitKeysMain(genRequest, partExternal.size(), templateOptions, pw);
+            } else {
+                BuiltinTemplateEmitter.emitValuesMain(genRequest, partExternal, pw);
+            }
+        }
+        timer.stop(Phase.RENDER);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Renders a part interface (templates "keys" and "values" only).
+     *
+     * @param genRequest the generator request of the constants class
+     * @param index      the index of the part
+     * @param parts      the entries of all part interfaces
+     * @param external   the entries with externalized values of the part
+     * @param timer      the timer to record the time
+     * @return the content of the Java file
+     * @throws IOException writing to the buffer failed
+     */
+    private byte[] renderPart(final GeneratorRequest genRequest, final int index,
+            final List<Map<String, PropEntry>> parts, final List<PropEntry> external, final PhaseTimer timer)
+            throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        timer.start();
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(buffer, sourceEncoding))) {
+            final List<PropEntry> entries = new ArrayList<>(parts.get(index).values());
+            if (KEYS_TEMPLATE_ID.equals(template)) {
+                BuiltinTemplateEmitter.emitKeysPart(genRequest, index, entries, pw);
+            } else {
+                BuiltinTemplateEmitter.emitValuesPart(genRequest, index, entries, external, pw);
+            }
+        }
+        timer.stop(Phase.RENDER);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Resolves the configured template id to the template file name.
+     *
+     * @return the template file name
+     */
+    private String getTemplateFile() {
         switch (this.template) {
         case KEYS_TEMPLATE_ID:
         case VALUES_TEMPLATE_ID:
-            templateFile = String.format(KEY_TEMPLATE_FMT, this.template);
-            break;
+        case ENUM_TEMPLATE_ID:
+        case BUNDLE_TEMPLATE_ID:
+            return String.format(KEY_TEMPLATE_FMT, this.template);
 
         default:
-            templateFile = this.template;
-            break;
-        }
-
-        try (PrintWriter pw = new PrintWriter(
-                new OutputStreamWriter(buildContext.newFileOutputStream(genRequest.getJavaFile()), sourceEncoding))) {
-            tmplHandler.process(templateFile, model, pw);
+            return this.template;
         }
     }
 
-    private Map<String, Object> buildModel(final GeneratorRequest genReq, final Properties props) {
-
-        final List<PropEntry> entryList = props.keySet().stream()
-                .map(k -> new PropEntry((String) k, props.getProperty((String) k))).collect(Collectors.toList());
+    private TemplateHashModel buildModel(final GeneratorRequest genReq, final Map<String, PropEntry> entries) {
 
+        final ModelObjectWrapper wrapper = tmplHandler.getObjectWrapper(getTemplateFile());
         final Map<String, Object> model = new HashMap<>();
 
-        model.put("packageName", genReq.getPackageName());
-        model.put("simpleClassName", genReq.getSimpleClassName());
-        model.put("fullClassName", genReq.getFullClassName());
-        model.put("propertiesFileName", genReq.getPropertiesFileName());
-        model.put("javaFileName", genReq.getJavaFileName());
-        model.put("bundleName", genReq.getBundleName());
-        model.put("isXmlProperties", genReq.isXmlProperties());
-
-        model.put("entries", entryList);
-        model.put("properties", props);
+        if (MATERIALIZED_MODEL.equals(templateModel)) {
+            final Properties props = new OrderedProperties();
+            entries.forEach((key, entry) -> props.put(key, entry.getValue()));
+            model.put("entries", wrapper.wrapEntries(new ArrayList<>(entries.values())));
+            model.put("properties", props);
+        } else {
+            model.put("entries", wrapper.wrapEntries(entries.values()));
+            model.put("properties", new PropertiesView(entries));
+        }
 
         model.put("options", templateOptions);
 
-        return model;
+        return wrapper.wrapRequest(genReq, model);
     }
 
     private void addError(final File file, final int line, final int column, final String message) {
@@ -444,7 +1908,14 @@ public class GenerateMojo extends AbstractMojo {
             }
         }
 
-        nameParts.add(baseNametoClassname(basename) + classNameSuffix);
+        final String locale = localeOf(basename);
+        builder.locale(locale);
+        if (BUNDLE_TEMPLATE_ID.equals(template) && !locale.isEmpty()) {
+            // A ListResourceBundle for a locale needs the locale as suffix
+            nameParts.add(baseNametoClassname(basename) + classNameSuffix + "_" + locale);
+        } else {
+            nameParts.add(baseNametoClassname(basename) + classNameSuffix);
+        }
 
         // build java fully qualified class name
         final String className = basePackage + "." + String.join(".", nameParts);
@@ -486,6 +1957,20 @@ public class GenerateMojo extends AbstractMojo {
         return removeResourceBundleLocale(name);
     }
 
+    /**
+     * Extracts the locale from a properties file name.
+     *
+     * @param basename the file name without directories
+     * @return the locale marker without the leading "_" (e.g "de_DE") or an empty
+     *         string
+     */
+    private static String localeOf(final String basename) {
+        final int idx = basename.lastIndexOf('.');
+        final String name = idx > 0 ? basename.substring(0, idx) : basename;
+        final Matcher matcher = RESOURCE_BUNDLE_LOCALE_PATTERN.matcher(name);
+        return matcher.find() ? matcher.group().substring(1) : "";
+    }
+
     // package visibility for testing
     String removeResourceBundleLocale(final String name) {
         return RESOURCE_BUNDLE_LOCALE_PATTERN.matcher(name).replaceAll("");
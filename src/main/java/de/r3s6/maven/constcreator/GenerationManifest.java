@@ -0,0 +1,251 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Records the result of the previous generation of one plugin execution.
+ * <p>
+ * For every properties file the fingerprint of the last successful generation
+ * and the generated Java files are stored. The fingerprint covers the content of
+ * the properties file, the template and the configuration. A properties file
+ * with an unchanged fingerprint doesn't need to be processed again, as long as
+ * the generated Java file still exists.
+ * <p>
+ * The recorded Java files are used to find orphans: Java files that were
+ * generated by a previous build for a properties file that is gone (or now
+ * results in other Java files).
+ * <p>
+ * The manifest is stored as properties file, the key is the properties file name
+ * relative to the resource directory. The value is the fingerprint followed by
+ * the names of the generated Java files (and resource files with externalized
+ * values) relative to the output directory, all separated by a blank.
+ *
+ * @author Ralf Schandl
+ */
+public class GenerationManifest {
+
+    /** File name suffix of manifest files. */
+    public static final String FILE_SUFFIX = "-manifest.properties";
+
+    private static final String COMMENT = "properties-constants-maven-plugin generation manifest";
+
+    /** Placeholder for a unknown or invalidated fingerprint. */
+    private static final String NO_FINGERPRINT = "-";
+
+    private static final String SEPARATOR = " ";
+
+    private final File file;
+
+    private final Properties entries = new Properties();
+
+    /**
+     * Constructs a new, empty manifest.
+     *
+     * @param file the file to load the manifest from and store it to
+     */
+    GenerationManifest(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Loads the manifest from its file. Does nothing if the file doesn't exist.
+     *
+     * @throws IOException if reading the file fails
+     */
+    public void load() throws IOException {
+        StateFile.load(file, entries, "manifest");
+    }
+
+    /**
+     * Stores the manifest to its file. Creates missing parent directories.
+     *
+     * @throws IOException if writing the file fails
+     */
+    public void store() throws IOException {
+        StateFile.store(file, entries, COMMENT);
+    }
+
+    /**
+     * Checks whether the Java files for the given request are up to date.
+     *
+     * @param genReq      the generator request
+     * @param fingerprint the current fingerprint of the request. Might be null if
+     *                    it couldn't be calculated.
+     * @return true if the fingerprint is unchanged and all recorded Java files
+     *         exist
+     */
+    public boolean isUpToDate(final GeneratorRequest genReq, final String fingerprint) {
+        final List<String> entry = getEntry(genReq.getPropertiesFileName());
+        if (fingerprint == null || entry.isEmpty() || !fingerprint.equals(entry.get(0))
+                || !entry.contains(genReq.getJavaFileName())) {
+            return false;
+        }
+        // All Java files of a request are generated into the same package directory
+        final File dir = genReq.getJavaFile().getParentFile();
+        for (final String javaFileName : entry.subList(1, entry.size())) {
+            if (!new File(dir, javaFileName.substring(javaFileName.lastIndexOf('/') + 1)).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the fingerprint and the generated Java file of a successfully
+     * processed request.
+     *
+     * @param genReq      the generator request
+     * @param fingerprint the fingerprint. Might be null, if it couldn't be
+     *                    calculated.
+     */
+    public void update(final GeneratorRequest genReq, final String fingerprint) {
+        update(genReq, fingerprint, Collections.singleton(genReq.getJavaFileName()));
+    }
+
+    /**
+     * Records the fingerprint and the generated Java files of a successfully
+     * processed request.
+     *
+     * @param genReq        the generator request
+     * @param fingerprint   the fingerprint. Might be null, if it couldn't be
+     *                      calculated.
+     * @param javaFileNames the generated Java files, relative to the output
+     *                      directory
+     * @return the Java files previously recorded for the request, that are not
+     *         generated anymore
+     */
+    public Set<String> update(final GeneratorRequest genReq, final String fingerprint,
+            final Collection<String> javaFileNames) {
+        final List<String> entry = getEntry(genReq.getPropertiesFileName());
+        final Set<String> dropped = new LinkedHashSet<>();
+        if (!entry.isEmpty()) {
+            dropped.addAll(entry.subList(1, entry.size()));
+            dropped.removeAll(javaFileNames);
+        }
+        setEntry(genReq.getPropertiesFileName(), fingerprint == null ? NO_FINGERPRINT : fingerprint,
+                javaFileNames);
+        return dropped;
+    }
+
+    /**
+     * Invalidates the fingerprint of a request, so it will be processed in the
+     * next build. The recorded Java files are kept.
+     *
+     * @param genReq the generator request
+     */
+    public void invalidate(final GeneratorRequest genReq) {
+        final List<String> entry = getEntry(genReq.getPropertiesFileName());
+        if (!entry.isEmpty()) {
+            setEntry(genReq.getPropertiesFileName(), NO_FINGERPRINT, entry.subList(1, entry.size()));
+        }
+    }
+
+    /**
+     * Finds the Java files generated by a previous build that are not generated
+     * by one of the given requests.
+     * <p>
+     * All Java files recorded for a properties file are kept, as long as the
+     * properties file still results in the same (main) Java file. Additional Java
+     * files that are not generated anymore are reported by
+     * {@link #update(GeneratorRequest, String, Collection)}.
+     *
+     * @param genRequests the current requests
+     * @return the orphaned Java files, relative to the output directory
+     */
+    public Set<String> findOrphans(final Collection<GeneratorRequest> genRequests) {
+        final Set<String> current = new HashSet<>();
+        for (final GeneratorRequest genReq : genRequests) {
+            current.add(genReq.getJavaFileName());
+            final List<String> entry = getEntry(genReq.getPropertiesFileName());
+            if (entry.contains(genReq.getJavaFileName())) {
+                current.addAll(entry.subList(1, entry.size()));
+            }
+        }
+
+        final Set<String> orphans = new LinkedHashSet<>(getJavaFileNames());
+        orphans.removeAll(current);
+        return orphans;
+    }
+
+    /**
+     * Returns all Java files recorded in this manifest.
+     *
+     * @return Java files, relative to the output directory
+     */
+    public Set<String> getJavaFileNames() {
+        final Set<String> javaFiles = new LinkedHashSet<>();
+        for (final String propFile : entries.stringPropertyNames()) {
+            final List<String> entry = getEntry(propFile);
+            javaFiles.addAll(entry.subList(1, entry.size()));
+        }
+        return javaFiles;
+    }
+
+    /**
+     * Removes all entries for properties files that are not handled by one of the
+     * given requests.
+     *
+     * @param genRequests the current requests
+     */
+    public void retain(final Collection<GeneratorRequest> genRequests) {
+        final Set<String> names = new HashSet<>();
+        for (final GeneratorRequest genReq : genRequests) {
+            names.add(genReq.getPropertiesFileName());
+        }
+        entries.keySet().retainAll(names);
+    }
+
+    /**
+     * The number of properties files in the manifest.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private List<String> getEntry(final String propertiesFileName) {
+        final String value = entries.getProperty(propertiesFileName);
+        if (value == null || value.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(value.split(SEPARATOR));
+    }
+
+    private void setEntry(final String propertiesFileName, final String fingerprint,
+            final Collection<String> javaFileNames) {
+        final StringBuilder sb = new StringBuilder(fingerprint);
+        for (final String javaFileName : javaFileNames) {
+            sb.append(SEPARATOR).append(javaFileName);
+        }
+        entries.setProperty(propertiesFileName, sb.toString());
+    }
+}
@@ -0,0 +1,265 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.r3s6.maven.constcreator.PhaseTimer.Phase;
+
+/**
+ * Report of the time and allocated bytes per phase of one plugin execution.
+ * <p>
+ * The report contains the totals of all phases and the slowest processed
+ * properties files. It is written as JSON, to be processed by CI tools:
+ *
+ * <pre>
+ * {
+ *   "executionId": "default",
+ *   "elapsedNanos": 123456789,
+ *   "allocationSupported": true,
+ *   "requests": 2,
+ *   "totals": {
+ *     "scan": { "nanos": 1234, "bytes": 5678 },
+ *     ...
+ *   },
+ *   "slowest": [
+ *     {
+ *       "propertiesFile": "messages.properties",
+ *       "className": "de.r3s6.constants.Messages",
+ *       "nanos": 1234,
+ *       "bytes": 5678,
+ *       "phases": { "parse": { "nanos": 1234, "bytes": 5678 }, ... }
+ *     },
+ *     ...
+ *   ]
+ * }
+ * </pre>
+ * <p>
+ * The totals of the phases of the processed properties files are the sum over
+ * all requests. With parallel generation they might be larger than
+ * {@code elapsedNanos}, the wall clock time of the execution.
+ *
+ * @author Ralf Schandl
+ */
+// CSOFF: MultipleString
+public final class GenerationReport {
+
+    /** File name suffix of report files. */
+    public static final String FILE_SUFFIX = "-report.json";
+
+    /** Maximum number of properties files listed as slowest. */
+    private static final int MAX_SLOWEST = 10;
+
+    // CSOFF: MagicNumber
+    private static final long MEGABYTE = 1024 * 1024;
+    // CSON: MagicNumber
+
+    private final String executionId;
+
+    private final long startNanos = System.nanoTime();
+
+    private long elapsedNanos;
+
+    private final PhaseTimer totals = new PhaseTimer();
+
+    private final List<Item> items = new ArrayList<>();
+
+    /**
+     * Constructs a new, empty report. The elapsed time is measured from now.
+     *
+     * @param executionId the id of the plugin execution
+     */
+    GenerationReport(final String executionId) {
+        this.executionId = executionId;
+    }
+
+    /**
+     * Adds the measurements of the execution itself (not related to a properties
+     * file).
+     *
+     * @param timer the timer of the execution
+     */
+    void addExecution(final PhaseTimer timer) {
+        totals.add(timer);
+    }
+
+    /**
+     * Adds the measurements of a processed request.
+     *
+     * @param result the result of the request
+     */
+    void addResult(final GenerationResult result) {
+        totals.add(result.getTimer());
+        items.add(new Item(result.getRequest(), result.getTimer()));
+    }
+
+    /**
+     * Stops the measurement of the elapsed time.
+     */
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public PhaseTimer getTotals() {
+        return totals;
+    }
+
+    /**
+     * Returns the slowest processed requests, the slowest first.
+     *
+     * @return the requests with their measurements, at most {@value #MAX_SLOWEST}
+     */
+    List<Item> getSlowest() {
+        final List<Item> slowest = new ArrayList<>(items);
+        slowest.sort(Comparator.comparingLong((final Item i) -> i.timer.getTotalNanos()).reversed());
+        return slowest.subList(0, Math.min(slowest.size(), MAX_SLOWEST));
+    }
+
+    /**
+     * Creates a one-line summary of the report for the log.
+     *
+     * @return the summary
+     */
+    String summary() {
+        final StringBuilder sb = new StringBuilder("Timing: ");
+        sb.append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms elapsed");
+        for (final Phase phase : Phase.values()) {
+            sb.append(", ").append(phase.getLabel()).append(' ')
+                    .append(TimeUnit.NANOSECONDS.toMillis(totals.getNanos(phase))).append(" ms");
+        }
+        if (PhaseTimer.isAllocationSupported()) {
+            sb.append(", ").append(totals.getTotalBytes() / MEGABYTE).append(" MB allocated");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report as JSON.
+     *
+     * @param file the file to write
+     * @throws IOException if writing fails
+     */
+    void write(final File file) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"executionId\": ").append(quote(executionId)).append(",\n");
+        json.append("  \"elapsedNanos\": ").append(elapsedNanos).append(",\n");
+        json.append("  \"allocationSupported\": ").append(PhaseTimer.isAllocationSupported()).append(",\n");
+        json.append("  \"requests\": ").append(items.size()).append(",\n");
+        json.append("  \"totals\": ");
+        appendPhases(json, totals, "  ");
+        json.append(",\n  \"slowest\": [");
+        String sep = "\n";
+        for (final Item item : getSlowest()) {
+            json.append(sep);
+            sep = ",\n";
+            json.append("    {\n");
+            json.append("      \"propertiesFile\": ").append(quote(item.propertiesFileName)).append(",\n");
+            json.append("      \"className\": ").append(quote(item.className)).append(",\n");
+            json.append("      \"nanos\": ").append(item.timer.getTotalNanos()).append(",\n");
+            json.append("      \"bytes\": ").append(item.timer.getTotalBytes()).append(",\n");
+            json.append("      \"phases\": ");
+            appendPhases(json, item.timer, "      ");
+            json.append("\n    }");
+        }
+        json.append(items.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+
+        OutputFiles.writeIfChanged(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendPhases(final StringBuilder json, final PhaseTimer timer, final String indent) {
+        json.append('{');
+        String sep = "\n";
+        for (final Phase phase : Phase.values()) {
+            json.append(sep).append(indent).append("  ").append(quote(phase.getLabel())).append(": { \"nanos\": ")
+                    .append(timer.getNanos(phase)).append(", \"bytes\": ").append(timer.getBytes(phase))
+                    .append(" }");
+            sep = ",\n";
+        }
+        json.append('\n').append(indent).append('}');
+    }
+
+    /**
+     * Quotes a string as JSON string.
+     *
+     * @param str the string
+     * @return the JSON string literal
+     */
+    // package visibility for testing
+    static String quote(final String str) {
+        final StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                // CSOFF: MagicNumber
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+                // CSON: MagicNumber
+                break;
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * The measurements of one processed request.
+     */
+    static final class Item {
+        private final String propertiesFileName;
+        private final String className;
+        private final PhaseTimer timer;
+
+        Item(final GeneratorRequest genReq, final PhaseTimer timer) {
+            this.propertiesFileName = genReq.getPropertiesFileName();
+            this.className = genReq.getFullClassName();
+            this.timer = timer;
+        }
+
+        String getPropertiesFileName() {
+            return propertiesFileName;
+        }
+
+        PhaseTimer getTimer() {
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Result of processing one {@link GeneratorRequest}.
+ * <p>
+ * Requests might be processed in parallel. Hence, the processing of a request
+ * doesn't log or report errors directly, but collects everything in its result.
+ * The results are reported in the order of the requests afterwards.
+ * <p>
+ * Instances are not thread-safe. A result is filled by one thread and handed
+ * over to the reporting thread when complete.
+ *
+ * @author Ralf Schandl
+ */
+public final class GenerationResult {
+
+    /**
+     * Status of a processed request.
+     */
+    public enum Status {
+        /** At least one file was written. */
+        WRITTEN,
+        /** All files already had the generated content. */
+        UNCHANGED,
+        /** Processing failed, see errors. */
+        FAILED
+    }
+
+    private final GeneratorRequest request;
+
+    private Status status = Status.FAILED;
+
+    private final List<String> fileNames = new ArrayList<>();
+
+    private final List<File> writtenFiles = new ArrayList<>();
+
+    private int writtenJavaFiles;
+
+    private int unchangedJavaFiles;
+
+    private final List<String> debugMessages = new ArrayList<>();
+
+    private final List<Message> errors = new ArrayList<>();
+
+    private final List<Message> warnings = new ArrayList<>();
+
+    private MojoExecutionException fatalError;
+
+    private final PhaseTimer timer;
+
+    /**
+     * Constructs a new result for the given request.
+     *
+     * @param request the processed request
+     */
+    GenerationResult(final GeneratorRequest request) {
+        this(request, new PhaseTimer());
+    }
+
+    /**
+     * Constructs a new result for the given request.
+     *
+     * @param request the processed request
+     * @param timer   the timer to measure the phases, {@link PhaseTimer#disabled()}
+     *                if nothing should be measured
+     */
+    GenerationResult(final GeneratorRequest request, final PhaseTimer timer) {
+        this.request = request;
+        this.timer = timer;
+    }
+
+    public GeneratorRequest getRequest() {
+        return request;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the timer to measure the phases of processing the request.
+     *
+     * @return the timer
+     */
+    public PhaseTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Records a generated Java file. Unless an error was already recorded, sets the
+     * status to {@link Status#WRITTEN} if the file was written, otherwise to
+     * {@link Status#UNCHANGED} unless another file was already written.
+     *
+     * @param javaReq the request of the Java file. Differs from the request of
+     *                this result if the constants are distributed over several
+     *                classes.
+     * @param written true if the Java file was written, false if it was unchanged
+     */
+    void addJavaFile(final GeneratorRequest javaReq, final boolean written) {
+        addFile(javaReq.getJavaFileName(), javaReq.getJavaFile(), written);
+        if (written) {
+            writtenJavaFiles++;
+        } else {
+            unchangedJavaFiles++;
+        }
+    }
+
+    /**
+     * Records a generated resource file. Sets the status like
+     * {@link #addJavaFile(GeneratorRequest, boolean)}.
+     *
+     * @param fileName the file name, relative to the output directory
+     * @param file     the file
+     * @param written  true if the file was written, false if it was unchanged
+     */
+    void addResourceFile(final String fileName, final File file, final boolean written) {
+        addFile(fileName, file, written);
+    }
+
+    private void addFile(final String fileName, final File file, final boolean written) {
+        fileNames.add(fileName);
+        if (written) {
+            writtenFiles.add(file);
+        }
+        if (errors.isEmpty() && fatalError == null) {
+            status = writtenFiles.isEmpty() ? Status.UNCHANGED : Status.WRITTEN;
+        }
+    }
+
+    /**
+     * The generated Java and resource files, written or unchanged.
+     *
+     * @return the file names, relative to the output directory
+     */
+    public List<String> getFileNames() {
+        return Collections.unmodifiableList(fileNames);
+    }
+
+    public int getWrittenJavaFiles() {
+        return writtenJavaFiles;
+    }
+
+    public int getUnchangedJavaFiles() {
+        return unchangedJavaFiles;
+    }
+
+    /**
+     * The Java and resource files that were actually written.
+     *
+     * @return the written files
+     */
+    public List<File> getWrittenFiles() {
+        return Collections.unmodifiableList(writtenFiles);
+    }
+
+    public List<String> getDebugMessages() {
+        return Collections.unmodifiableList(debugMessages);
+    }
+
+    /**
+     * Adds a message to log on debug level.
+     *
+     * @param message the message
+     */
+    void debug(final String message) {
+        debugMessages.add(message);
+    }
+
+    public List<Message> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Adds an error. Sets the status to {@link Status#FAILED}.
+     *
+     * @param file    the file with the error
+     * @param line    the line number (0 if unknown)
+     * @param column  the column number (0 if unknown)
+     * @param message the error message
+     * @param cause   the cause, might be null
+     */
+    void addError(final File file, final int line, final int column, final String message, final Throwable cause) {
+        errors.add(new Message(file, line, column, message, cause));
+        status = Status.FAILED;
+    }
+
+    /**
+     * Adds all errors of another result. Sets the status to {@link Status#FAILED}
+     * if there are errors.
+     *
+     * @param other the other result
+     */
+    void addErrors(final GenerationResult other) {
+        for (final Message msg : other.errors) {
+            addError(msg.getFile(), msg.getLine(), msg.getColumn(), msg.getText(), msg.getCause());
+        }
+    }
+
+    public List<Message> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Adds a warning. Doesn't change the status.
+     *
+     * @param file    the file the warning is about
+     * @param line    the line number (0 if unknown)
+     * @param column  the column number (0 if unknown)
+     * @param message the warning message
+     */
+    void addWarning(final File file, final int line, final int column, final String message) {
+        warnings.add(new Message(file, line, column, message, null));
+    }
+
+    public MojoExecutionException getFatalError() {
+        return fatalError;
+    }
+
+    /**
+     * Sets an error that stops the whole generation. Sets the status to
+     * {@link Status#FAILED}.
+     *
+     * @param fatalError the exception to throw
+     */
+    void setFatalError(final MojoExecutionException fatalError) {
+        this.fatalError = fatalError;
+        status = Status.FAILED;
+    }
+
+    /**
+     * An error or warning message related to a file.
+     */
+    public static final class Message {
+        private final File file;
+        private final int line;
+        private final int column;
+        private final String text;
+        private final Throwable cause;
+
+        private Message(final File file, final int line, final int column, final String text,
+                final Throwable cause) {
+            this.file = file;
+            this.line = line;
+            this.column = column;
+            this.text = text;
+            this.cause = cause;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+    }
+}
@@ -60,10 +60,13 @@ public final class GeneratorRequest {
      */
     private final String bundleName;
 
+    /** The locale marker of the properties file name without leading "_" (e.g "en_US"). */
+    private final String locale;
+
     // CSOFF: ParameterNumberCheck
     private GeneratorRequest(final String fullClassName, final String javaFileName, final File javaFile,
             final String propertiesFileName, final File propertiesFile, final boolean xmlProperties,
-            final String bundleName) {
+            final String bundleName, final String locale) {
         this.fullClassName = fullClassName;
         this.javaFileName = javaFileName;
         this.javaFile = javaFile;
@@ -71,6 +74,7 @@ public final class GeneratorRequest {
         this.propertiesFile = propertiesFile;
         this.xmlProperties = xmlProperties;
         this.bundleName = bundleName;
+        this.locale = locale == null ? "" : locale;
 
         final int lastDot = fullClassName.lastIndexOf('.');
         this.packageName = fullClassName.substring(0, lastDot);
@@ -141,6 +145,34 @@ public final class GeneratorRequest {
         return xmlProperties;
     }
 
+    /**
+     * The locale of the properties file.
+     * <p>
+     * This is the locale marker of the properties file name without the leading
+     * "_". E.g. {@code dir/messages_en_US.properties} results in {@code en_US}.
+     *
+     * @return the locale or an empty string if the file name has no locale marker
+     */
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * Creates a request for an additional class generated for the same properties
+     * file. The class is created in the same package, its name is the class name
+     * of this request with the given suffix appended.
+     *
+     * @param suffix the suffix to append to the class name
+     * @return a new GeneratorRequest
+     */
+    public GeneratorRequest withClassNameSuffix(final String suffix) {
+        final String fileSuffix = suffix + ".java";
+        return new GeneratorRequest(fullClassName + suffix,
+                javaFileName.substring(0, javaFileName.length() - ".java".length()) + fileSuffix,
+                new File(javaFile.getParentFile(), simpleClassName + fileSuffix), propertiesFileName,
+                propertiesFile, xmlProperties, bundleName, locale);
+    }
+
     /**
      * Builder for a {@link GeneratorRequest}.
      */
@@ -170,6 +202,9 @@ public final class GeneratorRequest {
          */
         private String bundleName;
 
+        /** The locale marker of the properties file name without leading "_". */
+        private String locale;
+
         /**
          * Builds a {@link GeneratorRequest} from the builder content.
          *
@@ -177,7 +212,7 @@ public final class GeneratorRequest {
          */
         public GeneratorRequest build() {
             return new GeneratorRequest(fullClassName, javaFileName, javaFile, propertiesFileName, propertiesFile,
-                    xmlProperties, bundleName);
+                    xmlProperties, bundleName, locale);
         }
 
         /**
@@ -258,6 +293,18 @@ public final class GeneratorRequest {
             this.bundleName = theBundleName;
             return this;
         }
+
+        /**
+         * Sets the locale of the properties file.
+         *
+         * @param theLocale the locale marker of the properties file name without
+         *                  leading "_" (e.g "en_US"), empty or null if none
+         * @return this Builder
+         */
+        public Builder locale(final String theLocale) {
+            this.locale = theLocale;
+            return this;
+        }
     }
 
 }
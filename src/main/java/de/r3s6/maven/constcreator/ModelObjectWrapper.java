@@ -0,0 +1,337 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import freemarker.ext.util.WrapperTemplateModel;
+import freemarker.template.AdapterTemplateModel;
+import freemarker.template.DefaultObjectWrapper;
+import freemarker.template.SimpleCollection;
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateBooleanModel;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateCollectionModelEx;
+import freemarker.template.TemplateHashModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateSequenceModel;
+import freemarker.template.Version;
+
+/**
+ * Object wrapper for the template model with hand-written adapters for the
+ * objects of this plugin.
+ * <p>
+ * The {@code DefaultObjectWrapper} accesses {@link PropEntry} objects by
+ * reflection and creates a wrapper for every accessed entry and property. Here
+ * a {@link PropEntry} is wrapped by a small hash model that maps the property
+ * names directly to the getters. The entries and the metadata of the
+ * {@link GeneratorRequest} are adapted the same way. Everything else (e.g. the
+ * template options) is wrapped like by the {@code DefaultObjectWrapper}.
+ * <p>
+ * Names not known by an adapter (like method calls {@code entry.getKey()}) are
+ * delegated to the bean model of the {@code DefaultObjectWrapper}, so existing
+ * templates keep working.
+ *
+ * @author Ralf Schandl
+ */
+// CSOFF: MultipleString
+public class ModelObjectWrapper extends DefaultObjectWrapper {
+
+    /** The names of the request metadata in the model. */
+    private static final List<String> REQUEST_KEYS = Collections.unmodifiableList(
+            Arrays.asList("packageName", "simpleClassName", "fullClassName", "propertiesFileName", "javaFileName",
+                    "bundleName", "isXmlProperties", "locale"));
+
+    /**
+     * Constructs a new object wrapper.
+     *
+     * @param incompatibleImprovements the Freemarker version to be compatible with
+     */
+    public ModelObjectWrapper(final Version incompatibleImprovements) {
+        super(incompatibleImprovements);
+    }
+
+    @Override
+    protected TemplateModel handleUnknownType(final Object obj) throws TemplateModelException {
+        if (obj instanceof PropEntry) {
+            return new PropEntryModel((PropEntry) obj, this);
+        }
+        return super.handleUnknownType(obj);
+    }
+
+    /**
+     * Wraps the properties entries without copying them. A {@link List} is
+     * wrapped as sequence, any other collection as collection that supports
+     * {@code #list} and {@code ?size}, but no index access.
+     *
+     * @param entries the entries
+     * @return the template model
+     */
+    public TemplateModel wrapEntries(final Collection<PropEntry> entries) {
+        if (entries instanceof List) {
+            return new EntryListModel((List<PropEntry>) entries, this);
+        }
+        return new EntryCollectionModel(entries, this);
+    }
+
+    /**
+     * Creates the root model of a template from the metadata of the request and
+     * additional values.
+     *
+     * @param genReq the generator request
+     * @param values additional values of the model, wrapped on access
+     * @return the root model
+     */
+    public TemplateHashModelEx wrapRequest(final GeneratorRequest genReq, final Map<String, ?> values) {
+        return new RequestModel(genReq, values, this);
+    }
+
+    private TemplateModel wrapAsBean(final Object obj) throws TemplateModelException {
+        return super.handleUnknownType(obj);
+    }
+
+    private static TemplateModel scalar(final String str) {
+        return str == null ? null : new SimpleScalar(str);
+    }
+
+    /**
+     * Hash model for a {@link PropEntry}. The keys, the values and the size are
+     * those of the bean model, that is only created if needed.
+     */
+    static final class PropEntryModel implements TemplateHashModelEx, AdapterTemplateModel, WrapperTemplateModel {
+
+        private final PropEntry entry;
+
+        private final ModelObjectWrapper wrapper;
+
+        private TemplateHashModelEx beanModel;
+
+        PropEntryModel(final PropEntry entry, final ModelObjectWrapper wrapper) {
+            this.entry = entry;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public TemplateModel get(final String name) throws TemplateModelException {
+            switch (name) {
+            case "key":
+                return scalar(entry.getKey());
+            case "value":
+                return scalar(entry.getValue());
+            case "javadocKey":
+                return scalar(entry.getJavadocKey());
+            case "javadocValue":
+                return scalar(entry.getJavadocValue());
+            case "javaKey":
+                return scalar(entry.getJavaKey());
+            case "javaValue":
+                return scalar(entry.getJavaValue());
+            case "constantName":
+                return scalar(entry.getConstantName());
+            case "variableName":
+                return scalar(entry.getVariableName());
+            case "getterName":
+                return scalar(entry.getGetterName());
+            default:
+                return beanModel().get(name);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() throws TemplateModelException {
+            return beanModel().size();
+        }
+
+        @Override
+        public TemplateCollectionModel keys() throws TemplateModelException {
+            return beanModel().keys();
+        }
+
+        @Override
+        public TemplateCollectionModel values() throws TemplateModelException {
+            return beanModel().values();
+        }
+
+        private TemplateHashModelEx beanModel() throws TemplateModelException {
+            if (beanModel == null) {
+                beanModel = (TemplateHashModelEx) wrapper.wrapAsBean(entry);
+            }
+            return beanModel;
+        }
+
+        @Override
+        public Object getAdaptedObject(final Class<?> hint) {
+            return entry;
+        }
+
+        @Override
+        public Object getWrappedObject() {
+            return entry;
+        }
+    }
+
+    /**
+     * Sequence model for a list of entries.
+     */
+    static final class EntryListModel implements TemplateSequenceModel {
+
+        private final List<PropEntry> entries;
+
+        private final ModelObjectWrapper wrapper;
+
+        EntryListModel(final List<PropEntry> entries, final ModelObjectWrapper wrapper) {
+            this.entries = entries;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public TemplateModel get(final int index) {
+            return index < 0 || index >= entries.size() ? null : new PropEntryModel(entries.get(index), wrapper);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Collection model for entries that are iterated on the fly.
+     */
+    static final class EntryCollectionModel implements TemplateCollectionModelEx {
+
+        private final Collection<PropEntry> entries;
+
+        private final ModelObjectWrapper wrapper;
+
+        EntryCollectionModel(final Collection<PropEntry> entries, final ModelObjectWrapper wrapper) {
+            this.entries = entries;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public TemplateModelIterator iterator() {
+            final Iterator<PropEntry> iter = entries.iterator();
+            return new TemplateModelIterator() {
+                @Override
+                public TemplateModel next() {
+                    return new PropEntryModel(iter.next(), wrapper);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return iter.hasNext();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    /**
+     * Root model with the metadata of a {@link GeneratorRequest} and additional
+     * values.
+     */
+    static final class RequestModel implements TemplateHashModelEx {
+
+        private final GeneratorRequest genReq;
+
+        private final Map<String, ?> values;
+
+        private final ModelObjectWrapper wrapper;
+
+        RequestModel(final GeneratorRequest genReq, final Map<String, ?> values, final ModelObjectWrapper wrapper) {
+            this.genReq = genReq;
+            this.values = values;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public TemplateModel get(final String name) throws TemplateModelException {
+            switch (name) {
+            case "packageName":
+                return scalar(genReq.getPackageName());
+            case "simpleClassName":
+                return scalar(genReq.getSimpleClassName());
+            case "fullClassName":
+                return scalar(genReq.getFullClassName());
+            case "propertiesFileName":
+                return scalar(genReq.getPropertiesFileName());
+            case "javaFileName":
+                return scalar(genReq.getJavaFileName());
+            case "bundleName":
+                return scalar(genReq.getBundleName());
+            case "isXmlProperties":
+                return genReq.isXmlProperties() ? TemplateBooleanModel.TRUE : TemplateBooleanModel.FALSE;
+            case "locale":
+                return scalar(genReq.getLocale());
+            default:
+                final Object value = values.get(name);
+                return value == null ? null : wrapper.wrap(value);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return REQUEST_KEYS.size() + values.size();
+        }
+
+        @Override
+        public TemplateCollectionModel keys() {
+            final List<String> keys = new ArrayList<>(REQUEST_KEYS);
+            keys.addAll(values.keySet());
+            return new SimpleCollection(keys, wrapper);
+        }
+
+        @Override
+        public TemplateCollectionModel values() throws TemplateModelException {
+            final List<TemplateModel> models = new ArrayList<>(size());
+            for (final String key : REQUEST_KEYS) {
+                models.add(get(key));
+            }
+            for (final Object value : values.values()) {
+                models.add(wrapper.wrap(value));
+            }
+            return new SimpleCollection(models, wrapper);
+        }
+    }
+}
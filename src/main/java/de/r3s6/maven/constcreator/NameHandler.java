@@ -31,6 +31,32 @@ public final class NameHandler {
     private static final String DIV = "_";
     private static final char DIV_CHR = '_';
 
+    private static final String GETTER_PREFIX = "get";
+    private static final int GETTER_PREFIX_LEN = GETTER_PREFIX.length();
+
+    /** Number of ASCII characters. */
+    private static final int ASCII = 128;
+
+    /** ASCII char class: separates parts. */
+    private static final byte SEPARATOR = 0;
+    /** ASCII char class: identifier part, not upper case. */
+    private static final byte LOWER = 1;
+    /** ASCII char class: upper case identifier part. */
+    private static final byte UPPER = 2;
+
+    /** Char classes of ASCII characters. Derived from the Character methods. */
+    private static final byte[] ASCII_CLASS = new byte[ASCII];
+
+    static {
+        for (char c = 0; c < ASCII; c++) {
+            if (c == DIV_CHR || !Character.isJavaIdentifierPart(c)) {
+                ASCII_CLASS[c] = SEPARATOR;
+            } else {
+                ASCII_CLASS[c] = Character.isUpperCase(c) ? UPPER : LOWER;
+            }
+        }
+    }
+
     private NameHandler() {
         // Nothing to instantiate.
     }
@@ -49,10 +75,131 @@ public final class NameHandler {
      * @throws NullPointerException     if name is null
      */
     public static JavaNames createJavaNames(final String name) {
+        Objects.requireNonNull(name, "name must not be null");
+        final JavaNames names = createAsciiJavaNames(name);
+        return names != null ? names : createUnicodeJavaNames(name);
+    }
+
+    /**
+     * Creates the Java names for any name. See
+     * {@link #createJavaNames(String)}.
+     *
+     * @param name the initial name (aka property key)
+     * @return {@link JavaNames} containing names
+     */
+    static JavaNames createUnicodeJavaNames(final String name) {
         final List<String> np = splitParts(name);
         return new JavaNames(buildConstantName(np), buildVariableName(np), buildGetterName(np));
     }
 
+    // CSOFF: MagicNumber
+    /**
+     * Creates the Java names for a ASCII-only name in one pass without
+     * intermediate strings. See {@link #createJavaNames(String)}.
+     * <p>
+     * For ASCII characters upper and lower case conversion is simple, so no
+     * special casing as in {@link String#toUpperCase(Locale)} is needed.
+     *
+     * @param name the initial name (aka property key)
+     * @return {@link JavaNames} containing names, null if the name contains
+     *         non-ASCII characters or no identifier characters at all
+     */
+    static JavaNames createAsciiJavaNames(final String name) {
+        final int len = name.length();
+        // constant: room for leading "_" and a "_" between every char
+        final char[] constant = new char[2 * len + 1];
+        // getter and variable: getter prefix + camel case name
+        final char[] camel = new char[len + GETTER_PREFIX_LEN];
+
+        int constLen = 1;
+        int camelLen = GETTER_PREFIX_LEN;
+        boolean inPart = false;
+        boolean lastIsLower = false;
+
+        for (int i = 0; i < len; i++) {
+            final char chr = name.charAt(i);
+            if (chr >= ASCII) {
+                return null;
+            }
+            final byte cls = ASCII_CLASS[chr];
+            if (cls == SEPARATOR) {
+                inPart = false;
+                lastIsLower = false;
+                continue;
+            }
+
+            final boolean isUpper = cls == UPPER;
+            if (inPart && lastIsLower && isUpper) {
+                inPart = false;
+            }
+            final char upper = toUpperAscii(chr);
+            if (inPart) {
+                camel[camelLen++] = toLowerAscii(chr);
+            } else {
+                if (constLen > 1) {
+                    constant[constLen++] = DIV_CHR;
+                }
+                camel[camelLen++] = upper;
+                inPart = true;
+            }
+            constant[constLen++] = upper;
+            lastIsLower = !isUpper;
+        }
+
+        if (constLen == 1) {
+            // no parts at all
+            return null;
+        }
+
+        return toJavaNames(constant, constLen, camel, camelLen);
+    }
+
+    /**
+     * Creates the names from the buffers filled by
+     * {@link #createAsciiJavaNames(String)}.
+     *
+     * @param constant the constant name, starting at index 1
+     * @param constLen end of the constant name
+     * @param camel    the camel case name, starting after the getter prefix
+     * @param camelLen end of the camel case name
+     * @return the Java names
+     */
+    private static JavaNames toJavaNames(final char[] constant, final int constLen, final char[] camel,
+            final int camelLen) {
+        final int constStart;
+        if (Character.isJavaIdentifierStart(constant[1])) {
+            constStart = 1;
+        } else {
+            constant[0] = DIV_CHR;
+            constStart = 0;
+        }
+        final String constantName = new String(constant, constStart, constLen - constStart); // NOCS: IllegalInstantiation
+
+        GETTER_PREFIX.getChars(0, GETTER_PREFIX_LEN, camel, 0);
+        final String getterName = new String(camel, 0, camelLen); // NOCS: IllegalInstantiation
+
+        camel[GETTER_PREFIX_LEN] = toLowerAscii(camel[GETTER_PREFIX_LEN]);
+        final int varStart;
+        if (Character.isJavaIdentifierStart(camel[GETTER_PREFIX_LEN])) {
+            varStart = GETTER_PREFIX_LEN;
+        } else {
+            camel[GETTER_PREFIX_LEN - 1] = DIV_CHR;
+            varStart = GETTER_PREFIX_LEN - 1;
+        }
+        final String variableName = new String(camel, varStart, camelLen - varStart); // NOCS: IllegalInstantiation
+
+        return new JavaNames(constantName, variableName, getterName);
+    }
+
+    private static char toUpperAscii(final char chr) {
+        return chr >= 'a' && chr <= 'z' ? (char) (chr - 32) : chr;
+    }
+
+    private static char toLowerAscii(final char chr) {
+        return chr >= 'A' && chr <= 'Z' ? (char) (chr + 32) : chr;
+    }
+    // CSON: MagicNumber
+
     /**
      * Build a class name for the given name.
      *
@@ -160,7 +307,7 @@ public final class NameHandler {
      * @return name suitable as Java getter method name
      */
     private static String buildGetterName(final List<String> parts) {
-        return "get" + camelCase(parts);
+        return GETTER_PREFIX + camelCase(parts);
     }
 
     private static String camelCase(final List<String> parts) {
@@ -0,0 +1,78 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Utilities to write generated files.
+ *
+ * @author Ralf Schandl
+ */
+public final class OutputFiles {
+
+    private OutputFiles() {
+        // Nothing to instantiate.
+    }
+
+    /**
+     * Writes the content to the file, if the file doesn't already have exactly
+     * this content.
+     * <p>
+     * An unchanged file is not touched, so its modification time is kept and tools
+     * like the compiler don't consider it as changed.
+     * <p>
+     * The file is written to a temporary file in the same directory first, that
+     * is then moved to the target (atomically if supported by the file system).
+     * Missing parent directories are created.
+     *
+     * @param file    the file to write
+     * @param content the new content of the file
+     * @return true if the file was written, false if it was unchanged
+     * @throws IOException if reading or writing the file fails
+     */
+    public static boolean writeIfChanged(final Path file, final byte[] content) throws IOException {
+        if (Files.isDirectory(file)) {
+            throw new FileSystemException(file.toString(), null, "Is a directory");
+        }
+
+        if (Files.isRegularFile(file) && Files.size(file) == content.length
+                && Arrays.equals(content, Files.readAllBytes(file))) {
+            return false;
+        }
+
+        final Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        final Path tmpFile = Files.createTempFile(dir, "." + file.getFileName(), ".tmp");
+        try {
+            Files.write(tmpFile, content);
+            try {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+        return true;
+    }
+}
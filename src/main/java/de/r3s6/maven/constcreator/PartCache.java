@@ -0,0 +1,115 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Records the fingerprints of the part classes generated for one properties
+ * file.
+ * <p>
+ * When the constants of a large properties file are distributed over part
+ * classes, a change of some entries only changes the part classes of these
+ * entries. The fingerprint of a part class covers its entries, the template
+ * and the configuration. A part class with an unchanged fingerprint doesn't
+ * need to be rendered again, as long as its Java file still exists. So the
+ * rendering time of a small change doesn't depend on the size of the properties
+ * file.
+ * <p>
+ * Only the part classes recorded with {@link #update(String, String)} since
+ * loading are stored. A part class that was not processed successfully is
+ * dropped and rendered again in the next build.
+ * <p>
+ * The cache is stored as properties file, the key is the name of the Java file
+ * relative to the output directory, the value is the fingerprint.
+ *
+ * @author Ralf Schandl
+ */
+public class PartCache {
+
+    /** File name suffix of cache files. */
+    public static final String FILE_SUFFIX = ".parts";
+
+    private static final String COMMENT = "properties-constants-maven-plugin part classes";
+
+    private final File file;
+
+    private final Properties previous = new Properties();
+
+    private final Properties current = new Properties();
+
+    /**
+     * Constructs a new, empty cache.
+     *
+     * @param file the file to load the cache from and store it to
+     */
+    PartCache(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Loads the fingerprints of the previous build. Does nothing if the file
+     * doesn't exist.
+     *
+     * @throws IOException if reading the file fails
+     */
+    public void load() throws IOException {
+        StateFile.load(file, previous, "part cache");
+    }
+
+    /**
+     * Stores the recorded fingerprints, if they differ from the loaded ones.
+     * Creates missing parent directories.
+     *
+     * @throws IOException if writing the file fails
+     */
+    public void store() throws IOException {
+        if (current.equals(previous) && file.isFile()) {
+            return;
+        }
+        StateFile.store(file, current, COMMENT);
+    }
+
+    /**
+     * Checks whether a part class was generated by the previous build with the
+     * same fingerprint.
+     *
+     * @param javaFileName the Java file of the part class, relative to the output
+     *                     directory
+     * @param fingerprint  the current fingerprint of the part class
+     * @return true if the fingerprint is unchanged
+     */
+    public boolean isUnchanged(final String javaFileName, final String fingerprint) {
+        return fingerprint.equals(previous.getProperty(javaFileName));
+    }
+
+    /**
+     * Records the fingerprint of a successfully generated part class.
+     *
+     * @param javaFileName the Java file of the part class, relative to the output
+     *                     directory
+     * @param fingerprint  the fingerprint
+     */
+    public void update(final String javaFileName, final String fingerprint) {
+        current.setProperty(javaFileName, fingerprint);
+    }
+}
@@ -0,0 +1,240 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Measures the time and the allocated bytes of the phases of the generation.
+ * <p>
+ * A phase is measured from the call of {@link #start()} to the call of
+ * {@link #stop(Phase)}. Measurements of the same phase are summed up.
+ * <p>
+ * The allocated bytes are measured for the current thread, so start and stop
+ * must be called by the same thread. Allocations of other threads (like the
+ * parallel parsing of locale variants) are not included. Allocated bytes are
+ * only available if the JVM supports it (see
+ * {@link #isAllocationSupported()}), otherwise they are always 0.
+ * <p>
+ * Measuring costs time itself, so without report the shared timer
+ * {@link #disabled()} is used, that measures nothing.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Ralf Schandl
+ */
+public final class PhaseTimer {
+
+    /**
+     * The measured phases.
+     */
+    public enum Phase {
+        /** Scanning for properties files. */
+        SCAN,
+        /** Deleting Java files of deleted properties files and orphaned Java files. */
+        CLEANUP,
+        /** Calculating the fingerprints to skip unchanged files (only incremental). */
+        FINGERPRINT,
+        /** Reading the properties files. */
+        PARSE,
+        /** Building the template model (only custom templates). */
+        MODEL,
+        /** Rendering the Java code. */
+        RENDER,
+        /** Writing the generated files. */
+        WRITE;
+
+        /**
+         * Returns the name of the phase as used in the report and log.
+         *
+         * @return the lower case name
+         */
+        public String getLabel() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final PhaseTimer DISABLED = new PhaseTimer(false);
+
+    private final boolean enabled;
+
+    private final long[] nanos = new long[Phase.values().length];
+
+    private final long[] bytes = new long[Phase.values().length];
+
+    private long startNanos;
+
+    private long startBytes;
+
+    /**
+     * Constructs a new timer.
+     */
+    public PhaseTimer() {
+        this(true);
+    }
+
+    private PhaseTimer(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the shared timer that measures nothing. All its measurements are 0.
+     *
+     * @return the disabled timer
+     */
+    public static PhaseTimer disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Whether the JVM supports measuring the allocated bytes of a thread.
+     *
+     * @return true if allocated bytes are measured
+     */
+    public static boolean isAllocationSupported() {
+        return AllocationCounter.SUPPORTED;
+    }
+
+    /**
+     * Starts the measurement of a phase.
+     */
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        startBytes = AllocationCounter.allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Stops the measurement started by the last call of {@link #start()} and adds
+     * it to the given phase.
+     *
+     * @param phase the measured phase
+     */
+    public void stop(final Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        nanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        bytes[phase.ordinal()] += AllocationCounter.allocatedBytes() - startBytes;
+    }
+
+    /**
+     * Adds the measurements of another timer to this timer.
+     *
+     * @param other the other timer
+     */
+    public void add(final PhaseTimer other) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] += other.nanos[i];
+            bytes[i] += other.bytes[i];
+        }
+    }
+
+    /**
+     * Returns the time spent in the given phase.
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getNanos(final Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the bytes allocated in the given phase.
+     *
+     * @param phase the phase
+     * @return the allocated bytes, 0 if not supported
+     */
+    public long getBytes(final Phase phase) {
+        return bytes[phase.ordinal()];
+    }
+
+    /**
+     * Returns the time spent in all phases.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (final long n : nanos) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bytes allocated in all phases.
+     *
+     * @return the allocated bytes, 0 if not supported
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (final long b : bytes) {
+            total += b;
+        }
+        return total;
+    }
+
+    /**
+     * Measures the allocated bytes of the current thread with the HotSpot specific
+     * {@code com.sun.management.ThreadMXBean}. Only this class refers to it, so on
+     * other JVMs only this class fails to initialize its bean and measures
+     * nothing.
+     */
+    private static final class AllocationCounter {
+
+        private static final com.sun.management.ThreadMXBean THREAD_BEAN = allocationBean();
+
+        private static final boolean SUPPORTED = THREAD_BEAN != null;
+
+        private AllocationCounter() {
+            // Nothing to instantiate.
+        }
+
+        static long allocatedBytes() {
+            if (!SUPPORTED) {
+                return 0;
+            }
+            try {
+                return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+            } catch (final UnsupportedOperationException e) {
+                return 0;
+            }
+        }
+
+        private static com.sun.management.ThreadMXBean allocationBean() {
+            try {
+                final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                    if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                        return sunBean;
+                    }
+                }
+            } catch (final LinkageError | UnsupportedOperationException | SecurityException e) {
+                // IGNORED: JVM without com.sun.management -- no allocation measurement
+            }
+            return null;
+        }
+    }
+}
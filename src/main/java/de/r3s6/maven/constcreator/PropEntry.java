@@ -25,7 +25,12 @@ import de.r3s6.maven.constcreator.NameHandler.JavaNames;
  * An instance of this class holds the key and value from the properties file
  * and additional the generated constant, variable and getter name.
  * <p>
- * Also escaped key and value for javadoc are available.
+ * Also escaped key and value for javadoc and for Java string literals are
+ * available.
+ * <p>
+ * The Java names and the escaped keys and values are created on first access, as
+ * most templates only use some of them. Creating them concurrently is harmless,
+ * as the result is always the same immutable object.
  *
  * @author Ralf Schandl
  */
@@ -34,12 +39,13 @@ public class PropEntry {
     private final String key;
     private final String value;
 
-    private final String javadocKey;
-    private final String javadocValue;
+    private String javadocKey;
+    private String javadocValue;
+
+    private String javaKey;
+    private String javaValue;
 
-    private final String constantName;
-    private final String variableName;
-    private final String getterName;
+    private JavaNames names;
 
     /**
      * Constructs a new PropEntry.
@@ -58,36 +64,181 @@ public class PropEntry {
             throw new InvalidPropertyKeyException("empty key");
         }
         this.value = value;
+    }
+
+    /**
+     * Escapes text for Javadoc. The characters {@code &}, {@code <} and
+     * {@code >} as well as the sequences <code>{&#64;</code> and
+     * <code>&#42;/</code> are replaced by HTML entities.
+     *
+     * @param text the text to escape
+     * @return the escaped text, the given instance if nothing needs to be escaped
+     */
+    // package visibility for testing
+    static String escapeJavadoc(final String text) {
+        final int len = text.length();
+        int start = 0;
+        while (start < len && escapedLength(text, start) == 0) {
+            start++;
+        }
+        if (start == len) {
+            return text;
+        }
+
+        // CSOFF: MagicNumber
+        final StringBuilder sb = new StringBuilder(len + 16);
+        // CSON: MagicNumber
+        sb.append(text, 0, start);
+        int i = start;
+        while (i < len) {
+            final char chr = text.charAt(i);
+            switch (escapedLength(text, i)) {
+            case 0:
+                sb.append(chr);
+                i++;
+                break;
+            case 1:
+                sb.append(chr == '&' ? "&amp;" : chr == '<' ? "&lt;" : "&gt;");
+                i++;
+                break;
+            default:
+                sb.append(chr == '{' ? "{&#64;" : "&#42;/");
+                i += 2;
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the number of characters to escape at the given index: 1 for
+     * {@code &}, {@code <} and {@code >}, 2 for <code>{&#64;</code> and
+     * <code>&#42;/</code>, else 0.
+     */
+    private static int escapedLength(final String text, final int index) {
+        switch (text.charAt(index)) {
+        case '&':
+        case '<':
+        case '>':
+            return 1;
+        case '{':
+            return index + 1 < text.length() && text.charAt(index + 1) == '@' ? 2 : 0;
+        case '*':
+            return index + 1 < text.length() && text.charAt(index + 1) == '/' ? 2 : 0;
+        default:
+            return 0;
+        }
+    }
 
-        this.javadocKey = escapeJavadoc(this.key);
-        this.javadocValue = escapeJavadoc(this.value);
+    /**
+     * Escapes text for the content of a Java string literal.
+     * <p>
+     * Besides {@code "} and the backslash, the control characters (including
+     * DEL and the C1 controls) and unpaired surrogates are escaped. The control
+     * characters with a short escape sequence (like {@code \n}) use it, all
+     * others are written as Unicode escape. Line terminators are never written as
+     * Unicode escape, as the compiler would translate them before reading the
+     * literal. Valid surrogate pairs are kept.
+     *
+     * @param text the text to escape
+     * @return the escaped text, the given instance if nothing needs to be escaped
+     */
+    // package visibility for testing
+    static String escapeJava(final String text) {
+        final int len = text.length();
+        int start = 0;
+        while (start < len && !needsJavaEscape(text, start)) {
+            start++;
+        }
+        if (start == len) {
+            return text;
+        }
+
+        // CSOFF: MagicNumber
+        final StringBuilder sb = new StringBuilder(len + 16);
+        sb.append(text, 0, start);
+        for (int i = start; i < len; i++) {
+            final char chr = text.charAt(i);
+            if (!needsJavaEscape(text, i)) {
+                sb.append(chr);
+                continue;
+            }
+            switch (chr) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            case '\b':
+                sb.append("\\b");
+                break;
+            default:
+                sb.append("\\u");
+                for (int shift = 12; shift >= 0; shift -= 4) {
+                    sb.append(Character.forDigit((chr >> shift) & 0xF, 16));
+                }
+                break;
+            }
+        }
+        // CSON: MagicNumber
+        return sb.toString();
+    }
 
-        final JavaNames names = NameHandler.createJavaNames(key);
-        constantName = names.getConstantName();
-        variableName = names.getVariableName();
-        getterName = names.getGetterName();
+    /**
+     * Checks whether the character at the given index needs to be escaped in a
+     * Java string literal.
+     */
+    // CSOFF: MagicNumber
+    private static boolean needsJavaEscape(final String text, final int index) {
+        final char chr = text.charAt(index);
+        if (chr >= 0x20 && chr < 0x7F) {
+            return chr == '"' || chr == '\\';
+        }
+        if (chr < 0xA0) {
+            return true;
+        }
+        if (Character.isHighSurrogate(chr)) {
+            return index + 1 == text.length() || !Character.isLowSurrogate(text.charAt(index + 1));
+        }
+        if (Character.isLowSurrogate(chr)) {
+            return index == 0 || !Character.isHighSurrogate(text.charAt(index - 1));
+        }
+        return false;
     }
+    // CSON: MagicNumber
 
-    private String escapeJavadoc(final String text) {
-        // @formatter:off
-        return text.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("{@", "{&#64;")
-                .replace("*/", "&#42;/");
-        // @formatter:on
+    private JavaNames names() {
+        JavaNames result = names;
+        if (result == null) {
+            result = NameHandler.createJavaNames(key);
+            names = result;
+        }
+        return result;
     }
 
     public String getConstantName() {
-        return constantName;
+        return names().getConstantName();
     }
 
     public String getVariableName() {
-        return variableName;
+        return names().getVariableName();
     }
 
     public String getGetterName() {
-        return getterName;
+        return names().getGetterName();
     }
 
     public String getKey() {
@@ -98,11 +249,59 @@ public class PropEntry {
         return value;
     }
 
+    /**
+     * Returns the key escaped for Javadoc.
+     *
+     * @return the escaped key
+     */
     public String getJavadocKey() {
-        return javadocKey;
+        String result = javadocKey;
+        if (result == null) {
+            result = escapeJavadoc(key);
+            javadocKey = result;
+        }
+        return result;
     }
 
+    /**
+     * Returns the value escaped for Javadoc.
+     *
+     * @return the escaped value
+     */
     public String getJavadocValue() {
-        return javadocValue;
+        String result = javadocValue;
+        if (result == null) {
+            result = escapeJavadoc(value);
+            javadocValue = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key escaped for a Java string literal.
+     *
+     * @return the escaped key
+     */
+    public String getJavaKey() {
+        String result = javaKey;
+        if (result == null) {
+            result = escapeJava(key);
+            javaKey = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value escaped for a Java string literal.
+     *
+     * @return the escaped value
+     */
+    public String getJavaValue() {
+        String result = javaValue;
+        if (result == null) {
+            result = escapeJava(value);
+            javaValue = result;
+        }
+        return result;
     }
 }
@@ -0,0 +1,44 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+
+/**
+ * Thrown when a properties file has an invalid syntax.
+ *
+ * @author Ralf Schandl
+ */
+public class PropertiesParseException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+
+    PropertiesParseException(final String message, final int line) {
+        super(message);
+        this.line = line;
+    }
+
+    /**
+     * The line of the entry with the error.
+     *
+     * @return the line number, 1-based
+     */
+    public int getLine() {
+        return line;
+    }
+}
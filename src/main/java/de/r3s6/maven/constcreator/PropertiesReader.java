@@ -0,0 +1,402 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the entries of a properties file one after the other.
+ * <p>
+ * Follows the format of {@link java.util.Properties#load(java.io.InputStream)}:
+ * ISO-8859-1 encoding, comments, line continuation and escapes (including
+ * {@code \}{@code uXXXX}). Additionally the line number of every entry is
+ * available.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (PropertiesReader reader = new PropertiesReader(path)) {
+ *     while (reader.next()) {
+ *         process(reader.getKey(), reader.getValue(), reader.getLine());
+ *     }
+ * }
+ * </pre>
+ *
+ * In contrast to {@code Properties} duplicate keys are reported as they are
+ * found.
+ *
+ * @author Ralf Schandl
+ */
+public class PropertiesReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int EOF = -1;
+
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    private static final int HEX_RADIX = 16;
+
+    private static final int INITIAL_LINE_SIZE = 256;
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final FileChannel channel;
+
+    private final byte[] inBuf = new byte[BUFFER_SIZE];
+
+    private final ByteBuffer buffer = ByteBuffer.wrap(inBuf);
+
+    private int inOff;
+
+    private int inLimit;
+
+    /** Buffer for the current logical line. */
+    private char[] lineBuf = new char[INITIAL_LINE_SIZE];
+
+    private int lineLen;
+
+    /** Buffer to convert escapes. */
+    private char[] convertBuf = new char[INITIAL_LINE_SIZE];
+
+    /** Current line in the file. */
+    private int currentLine = 1;
+
+    private boolean lastWasCR;
+
+    private boolean skipLF;
+
+    private String key;
+
+    private String value;
+
+    private int line;
+
+    /**
+     * Opens the given properties file.
+     *
+     * @param file the properties file
+     * @throws IOException if the file can't be opened
+     */
+    public PropertiesReader(final Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * Reads the next entry.
+     *
+     * @return true if an entry was read, false on end of file
+     * @throws PropertiesParseException on invalid escape sequences
+     * @throws IOException              if reading fails
+     */
+    public boolean next() throws IOException {
+        if (!readLine()) {
+            key = null;
+            value = null;
+            return false;
+        }
+
+        final int limit = lineLen;
+        int keyLen = 0;
+        int valueStart = limit;
+        boolean hasSep = false;
+        boolean precedingBackslash = false;
+        while (keyLen < limit) {
+            final char c = lineBuf[keyLen];
+            if ((c == '=' || c == ':') && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                hasSep = true;
+                break;
+            } else if (isWhitespace(c) && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                break;
+            }
+            precedingBackslash = c == '\\' && !precedingBackslash;
+            keyLen++;
+        }
+        while (valueStart < limit) {
+            final char c = lineBuf[valueStart];
+            if (!isWhitespace(c)) {
+                if (!hasSep && (c == '=' || c == ':')) {
+                    hasSep = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+
+        key = convert(0, keyLen);
+        value = convert(valueStart, limit);
+        return true;
+    }
+
+    /**
+     * The key of the current entry.
+     *
+     * @return the key, null if no entry was read
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * The value of the current entry.
+     *
+     * @return the value, null if no entry was read
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * The line where the current entry starts.
+     *
+     * @return the line number, 1-based
+     */
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the next logical line into {@link #lineBuf}. Skips empty lines and
+     * comments, joins continuation lines and strips leading whitespace.
+     *
+     * @return false on end of file
+     * @throws IOException if reading fails
+     */
+    private boolean readLine() throws IOException {
+        lineLen = 0;
+        boolean skipWhiteSpace = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+
+        while (true) {
+            final int c = readSkipLF();
+            if (c == EOF) {
+                if (precedingBackslash) {
+                    lineLen--;
+                }
+                return lineLen > 0;
+            }
+
+            if (skipWhiteSpace) {
+                if (isWhitespace(c) || !appendedLineBegin && isLineTerminator(c)) {
+                    continue;
+                }
+                skipWhiteSpace = false;
+                appendedLineBegin = false;
+            }
+
+            if (!isLineTerminator(c)) {
+                if (lineLen == 0) {
+                    if (c == '#' || c == '!') {
+                        skipComment();
+                        skipWhiteSpace = true;
+                        continue;
+                    }
+                    line = currentLine;
+                }
+                append(c);
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                if (!precedingBackslash) {
+                    copyPlainChars();
+                }
+            } else if (lineLen == 0) {
+                skipWhiteSpace = true;
+            } else if (precedingBackslash) {
+                // continuation line
+                lineLen--;
+                skipWhiteSpace = true;
+                appendedLineBegin = true;
+                precedingBackslash = false;
+                skipLF = c == '\r';
+            } else {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reads the next character. Skips a LF following a CR that terminated a
+     * continued line.
+     *
+     * @return the character or {@link #EOF}
+     * @throws IOException if reading fails
+     */
+    private int readSkipLF() throws IOException {
+        final int c = read();
+        if (skipLF) {
+            skipLF = false;
+            if (c == '\n') {
+                return read();
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Skips the rest of a comment line. A comment is never continued.
+     *
+     * @throws IOException if reading fails
+     */
+    private void skipComment() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != EOF && !isLineTerminator(c));
+    }
+
+    /**
+     * Reads the next character and counts lines.
+     *
+     * @return the character or {@link #EOF}
+     * @throws IOException if reading fails
+     */
+    private int read() throws IOException {
+        if (inOff >= inLimit && !fill()) {
+            return EOF;
+        }
+
+        // ISO-8859-1: every byte is a char
+        final int c = inBuf[inOff++] & BYTE_MASK;
+        if (c == '\r' || c == '\n' && !lastWasCR) {
+            currentLine++;
+        }
+        lastWasCR = c == '\r';
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        inOff = 0;
+        inLimit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    /**
+     * Copies characters from the input buffer to the line buffer up to the next
+     * line terminator or backslash. Fast path for the common case.
+     */
+    private void copyPlainChars() {
+        final int start = inOff;
+        int end = start;
+        while (end < inLimit) {
+            final byte b = inBuf[end];
+            if (b == '\n' || b == '\r' || b == '\\') {
+                break;
+            }
+            end++;
+        }
+        final int count = end - start;
+        if (count > 0) {
+            ensureLineCapacity(count);
+            for (int i = start; i < end; i++) {
+                lineBuf[lineLen++] = (char) (inBuf[i] & BYTE_MASK);
+            }
+            inOff = end;
+            lastWasCR = false;
+        }
+    }
+
+    private void append(final int c) {
+        ensureLineCapacity(1);
+        lineBuf[lineLen++] = (char) c;
+    }
+
+    private void ensureLineCapacity(final int additional) {
+        if (lineLen + additional > lineBuf.length) {
+            lineBuf = Arrays.copyOf(lineBuf, Math.max(lineBuf.length * 2, lineLen + additional));
+        }
+    }
+
+    /**
+     * Converts escape sequences in the given range of {@link #lineBuf}.
+     *
+     * @param start start index
+     * @param end   end index (exclusive)
+     * @return the converted string
+     * @throws PropertiesParseException on invalid unicode escape
+     */
+    private String convert(final int start, final int end) throws PropertiesParseException {
+        if (convertBuf.length < end - start) {
+            convertBuf = new char[lineBuf.length];
+        }
+        int len = 0;
+        int i = start;
+        while (i < end) {
+            char c = lineBuf[i++];
+            if (c == '\\' && i < end) {
+                c = lineBuf[i++];
+                switch (c) {
+                case 'u':
+                    if (i + UNICODE_ESCAPE_LENGTH > end) {
+                        throw new PropertiesParseException("Malformed \\uxxxx encoding.", line);
+                    }
+                    int code = 0;
+                    for (int j = 0; j < UNICODE_ESCAPE_LENGTH; j++) {
+                        final int digit = Character.digit(lineBuf[i++], HEX_RADIX);
+                        if (digit < 0) {
+                            throw new PropertiesParseException("Malformed \\uxxxx encoding.", line);
+                        }
+                        code = code * HEX_RADIX + digit;
+                    }
+                    c = (char) code;
+                    break;
+                case 't':
+                    c = '\t';
+                    break;
+                case 'r':
+                    c = '\r';
+                    break;
+                case 'n':
+                    c = '\n';
+                    break;
+                case 'f':
+                    c = '\f';
+                    break;
+                default:
+                    break;
+                }
+            }
+            convertBuf[len++] = c;
+        }
+        return new String(convertBuf, 0, len); // NOCS: IllegalInstantiation
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isLineTerminator(final int c) {
+        return c == '\n' || c == '\r';
+    }
+}
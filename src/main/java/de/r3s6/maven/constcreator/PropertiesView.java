@@ -0,0 +1,90 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of the values of properties entries as map from key to value.
+ * <p>
+ * Used as {@code properties} in the streaming template model instead of a copy
+ * of the properties. The entries are iterated in the order of the underlying
+ * map.
+ *
+ * @author Ralf Schandl
+ */
+final class PropertiesView extends AbstractMap<String, String> {
+
+    private final Map<String, PropEntry> entries;
+
+    private final Set<Map.Entry<String, String>> entrySet = new AbstractSet<Map.Entry<String, String>>() {
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            final Iterator<Map.Entry<String, PropEntry>> iter = entries.entrySet().iterator();
+            return new Iterator<Map.Entry<String, String>>() {
+                @Override
+                public boolean hasNext() {
+                    return iter.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    final Map.Entry<String, PropEntry> entry = iter.next();
+                    return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().getValue());
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    };
+
+    /**
+     * Constructs a new view.
+     *
+     * @param entries Map of the keys to the entries
+     */
+    PropertiesView(final Map<String, PropEntry> entries) {
+        this.entries = entries;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public String get(final Object key) {
+        final PropEntry entry = entries.get(key);
+        return entry == null ? null : entry.getValue();
+    }
+}
@@ -0,0 +1,338 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Scans a directory tree for files matching Ant-style include and exclude
+ * patterns.
+ * <p>
+ * Does the same as the plexus {@code DirectoryScanner} used by the
+ * {@code BuildContext} on the command line, but the patterns are compiled to
+ * regular expressions once instead of being tokenized for every path. The tree
+ * is walked once and directories that can't contain an included file (no
+ * include pattern can match below them, or an exclude pattern like
+ * {@code dir/**} excludes everything below them) are not entered.
+ * <p>
+ * Pattern semantics:
+ * <ul>
+ * <li>{@code *} matches zero or more characters within a path segment,
+ * {@code ?} exactly one character.</li>
+ * <li>{@code **} as complete segment matches zero or more segments.</li>
+ * <li>A pattern ending with a separator matches everything below it, like the
+ * pattern followed by {@code **}.</li>
+ * <li>{@code %regex[...]} is a regular expression matched against the complete
+ * relative path with {@code /} as separator.</li>
+ * <li>Without include patterns, all files are included.</li>
+ * </ul>
+ * Symbolic links are followed, matching is case sensitive.
+ *
+ * @author Ralf Schandl
+ */
+public final class ResourceScanner {
+
+    private static final String REGEX_PREFIX = "%regex[";
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private static final String SLASH = "/";
+
+    private static final String SEPARATOR = FileSystems.getDefault().getSeparator();
+
+    private final Path baseDir;
+
+    private final List<AntPattern> includes;
+
+    private final List<AntPattern> excludes;
+
+    /**
+     * Constructs a new scanner.
+     *
+     * @param baseDir  the directory to scan
+     * @param includes the include patterns, null or empty for all files
+     * @param excludes the exclude patterns, might be null
+     */
+    public ResourceScanner(final Path baseDir, final String[] includes, final String[] excludes) {
+        this.baseDir = baseDir;
+        this.includes = compile(includes == null || includes.length == 0 ? new String[] { ANY_SEGMENTS } : includes);
+        this.excludes = compile(excludes == null ? new String[0] : excludes);
+    }
+
+    /**
+     * Walks the directory tree and returns the included files.
+     * <p>
+     * Unreadable directories are skipped silently, like the plexus
+     * {@code DirectoryScanner} does.
+     *
+     * @return the paths of the included files relative to the base directory,
+     *         with {@code /} as separator, in the order they were found
+     * @throws IOException if the base directory can't be read
+     */
+    public List<String> scan() throws IOException {
+        final List<String> found = new ArrayList<>();
+        Files.walkFileTree(baseDir, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                        if (dir.equals(baseDir)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        final String name = relativeName(dir);
+                        return couldHoldIncluded(name) && !isExcludedCompletely(name) ? FileVisitResult.CONTINUE
+                                : FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()) {
+                            final String name = relativeName(file);
+                            if (isIncluded(name)) {
+                                found.add(name);
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+                        if (file.equals(baseDir)) {
+                            throw exc;
+                        }
+                        // IGNORED: unreadable file or symlink loop -- skipped like DirectoryScanner does
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        return found;
+    }
+
+    /**
+     * Whether a file is included: matched by an include pattern and not matched
+     * by an exclude pattern.
+     *
+     * @param name the relative path with {@code /} as separator
+     * @return true if included
+     */
+    // package visibility for testing
+    boolean isIncluded(final String name) {
+        return matchesAny(includes, name) && !matchesAny(excludes, name);
+    }
+
+    /**
+     * Whether an include pattern could match a file below the given directory.
+     *
+     * @param dirName the relative path of the directory with {@code /} as
+     *                separator
+     * @return true if the directory needs to be scanned
+     */
+    // package visibility for testing
+    boolean couldHoldIncluded(final String dirName) {
+        final String[] segments = dirName.split(SLASH);
+        for (final AntPattern pattern : includes) {
+            if (pattern.couldMatchBelow(segments)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether all files below the given directory are excluded.
+     *
+     * @param dirName the relative path of the directory with {@code /} as
+     *                separator
+     * @return true if the directory doesn't need to be scanned
+     */
+    // package visibility for testing
+    boolean isExcludedCompletely(final String dirName) {
+        for (final AntPattern pattern : excludes) {
+            if (pattern.matchesAllBelow(dirName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String relativeName(final Path path) {
+        final String name = baseDir.relativize(path).toString();
+        return SLASH.equals(SEPARATOR) ? name : name.replace(SEPARATOR, SLASH);
+    }
+
+    private static boolean matchesAny(final List<AntPattern> patterns, final String name) {
+        for (final AntPattern pattern : patterns) {
+            if (pattern.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<AntPattern> compile(final String[] patterns) {
+        final List<AntPattern> compiled = new ArrayList<>(patterns.length);
+        for (final String pattern : patterns) {
+            if (pattern != null) {
+                compiled.add(new AntPattern(pattern));
+            }
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+
+    /**
+     * An Ant-style pattern compiled to one regular expression for the complete
+     * relative path and one per segment for the pruning of directories.
+     */
+    private static final class AntPattern {
+
+        /** Matches the complete relative path, using / as separator. */
+        private final Pattern regex;
+
+        /** The segment patterns, null for {@code **}, empty for regex patterns. */
+        private final List<Pattern> segments;
+
+        /** Whether the pattern is just {@code **}. */
+        private final boolean matchesAll;
+
+        /** If the pattern is {@code <prefix>/**}: matches the prefix. */
+        private final Pattern allBelowPrefix;
+
+        AntPattern(final String pattern) {
+            if (pattern.startsWith(REGEX_PREFIX) && pattern.endsWith("]")) {
+                regex = Pattern.compile(pattern.substring(REGEX_PREFIX.length(), pattern.length() - 1));
+                segments = Collections.emptyList();
+                matchesAll = false;
+                allBelowPrefix = null;
+            } else {
+                String normalized = pattern.replace('\\', '/');
+                if (normalized.endsWith(SLASH)) {
+                    normalized += ANY_SEGMENTS;
+                }
+                final List<String> parts = Arrays.asList(normalized.split(SLASH, -1));
+                regex = Pattern.compile(toRegex(parts));
+                segments = new ArrayList<>(parts.size());
+                for (final String part : parts) {
+                    segments.add(ANY_SEGMENTS.equals(part) ? null : Pattern.compile(segmentRegex(part)));
+                }
+                matchesAll = parts.size() == 1 && ANY_SEGMENTS.equals(parts.get(0));
+                if (parts.size() > 1 && ANY_SEGMENTS.equals(parts.get(parts.size() - 1))) {
+                    allBelowPrefix = Pattern.compile(toRegex(parts.subList(0, parts.size() - 1)));
+                } else {
+                    allBelowPrefix = null;
+                }
+            }
+        }
+
+        boolean matches(final String name) {
+            return regex.matcher(name).matches();
+        }
+
+        /**
+         * Whether this pattern could match a path starting with the given directory
+         * segments.
+         */
+        boolean couldMatchBelow(final String[] dirSegments) {
+            if (segments.isEmpty()) {
+                // regex pattern - can't tell
+                return true;
+            }
+            for (int i = 0; i < dirSegments.length; i++) {
+                if (i >= segments.size()) {
+                    return false;
+                }
+                final Pattern segment = segments.get(i);
+                if (segment == null) {
+                    return true;
+                }
+                if (!segment.matcher(dirSegments[i]).matches()) {
+                    return false;
+                }
+            }
+            // at least one more segment is needed for the file name
+            return segments.size() > dirSegments.length;
+        }
+
+        /**
+         * Whether this pattern matches every path below the given directory.
+         */
+        boolean matchesAllBelow(final String dirName) {
+            return matchesAll || allBelowPrefix != null && allBelowPrefix.matcher(dirName).matches();
+        }
+
+        /**
+         * Converts the segments of an Ant pattern to a regular expression for the
+         * complete path.
+         */
+        private static String toRegex(final List<String> parts) {
+            final StringBuilder sb = new StringBuilder();
+            boolean needSeparator = false;
+            boolean lastWasAny = false;
+            for (final String part : parts) {
+                if (ANY_SEGMENTS.equals(part)) {
+                    if (!lastWasAny) {
+                        // zero or more segments
+                        sb.append(needSeparator ? "(?:/.*)?" : "(?:.*/)?");
+                    }
+                    lastWasAny = true;
+                } else {
+                    if (needSeparator) {
+                        sb.append('/');
+                    }
+                    sb.append(segmentRegex(part));
+                    needSeparator = true;
+                    lastWasAny = false;
+                }
+            }
+            // only "**" matches everything
+            return needSeparator ? sb.toString() : ".*";
+        }
+
+        /**
+         * Converts one segment of an Ant pattern to a regular expression.
+         */
+        private static String segmentRegex(final String part) {
+            final StringBuilder sb = new StringBuilder();
+            final StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < part.length(); i++) {
+                final char c = part.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (literal.length() > 0) {
+                        sb.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    sb.append(c == '*' ? "[^/]*" : "[^/]");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                sb.append(Pattern.quote(literal.toString()));
+            }
+            return sb.toString();
+        }
+    }
+}
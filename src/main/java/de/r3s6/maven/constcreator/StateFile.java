@@ -0,0 +1,74 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Loads and stores the properties files in the state directory, like the
+ * {@link GenerationManifest} and the {@link PartCache}.
+ *
+ * @author Ralf Schandl
+ */
+final class StateFile {
+
+    private StateFile() {
+        // Nothing to instantiate.
+    }
+
+    /**
+     * Loads a state file. Does nothing if the file doesn't exist.
+     *
+     * @param file        the file to load
+     * @param props       the properties to load into, cleared first
+     * @param description description of the file for the error message
+     * @throws IOException if reading the file fails. The properties are empty
+     *                     then.
+     */
+    static void load(final File file, final Properties props, final String description) throws IOException {
+        props.clear();
+        if (file.isFile()) {
+            try (InputStream is = new FileInputStream(file)) {
+                props.load(is);
+            } catch (final IllegalArgumentException e) {
+                // Malformed \\uXXXX escape -- only possible if manipulated
+                props.clear();
+                throw new IOException("Invalid " + description + " " + file + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Stores a state file. Creates missing parent directories.
+     *
+     * @param file    the file to write
+     * @param props   the properties to store
+     * @param comment the comment written at the top of the file
+     * @throws IOException if writing the file fails
+     */
+    static void store(final File file, final Properties props, final String comment) throws IOException {
+        file.getParentFile().mkdirs();
+        try (OutputStream os = new FileOutputStream(file)) {
+            props.store(os, comment);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Records the templates loaded by the custom template of one plugin execution
+ * (e.g. with {@code <#include>} or {@code <#import>}).
+ * <p>
+ * The fingerprint in the {@link GenerationManifest} only covers the source of
+ * the template itself, as the loaded templates are only known after processing
+ * it. So the loaded templates are recorded with the fingerprint of their source.
+ * If one of them changed, all Java files of the execution have to be generated
+ * again.
+ * <p>
+ * The dependencies are stored as properties file, the key is the template name,
+ * the value is the fingerprint of its source.
+ *
+ * @author Ralf Schandl
+ */
+public class TemplateDependencies {
+
+    /** File name suffix of dependency files. */
+    public static final String FILE_SUFFIX = "-templates.properties";
+
+    private static final String COMMENT = "properties-constants-maven-plugin template dependencies";
+
+    private final File file;
+
+    private final Properties templates = new Properties();
+
+    /**
+     * Constructs new, empty dependencies.
+     *
+     * @param file the file to load the dependencies from and store them to
+     */
+    TemplateDependencies(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Loads the dependencies from its file. Does nothing if the file doesn't
+     * exist.
+     *
+     * @throws IOException if reading the file fails
+     */
+    public void load() throws IOException {
+        StateFile.load(file, templates, "template dependencies");
+    }
+
+    /**
+     * Stores the dependencies to its file. Creates missing parent directories.
+     * Without dependencies, the file is deleted.
+     *
+     * @throws IOException if writing or deleting the file fails
+     */
+    public void store() throws IOException {
+        if (templates.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+        StateFile.store(file, templates, COMMENT);
+    }
+
+    /**
+     * Finds a recorded template, that changed since it was recorded.
+     *
+     * @param handler the template handler to read the templates
+     * @return the name of the first changed or deleted template, null if none
+     *         changed
+     */
+    public String findChanged(final TemplateHandler handler) {
+        for (final String name : new TreeSet<>(templates.stringPropertyNames())) {
+            if (!templates.getProperty(name).equals(fingerprint(handler, name))) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the fingerprints of the current sources of the given and the already
+     * recorded templates. Templates that no longer exist are dropped.
+     *
+     * @param handler the template handler to read the templates
+     * @param loaded  the templates loaded in this build
+     */
+    public void update(final TemplateHandler handler, final Collection<String> loaded) {
+        final Set<String> names = new TreeSet<>(templates.stringPropertyNames());
+        names.addAll(loaded);
+        for (final String name : names) {
+            final String fingerprint = fingerprint(handler, name);
+            if (fingerprint == null) {
+                templates.remove(name);
+            } else {
+                templates.setProperty(name, fingerprint);
+            }
+        }
+    }
+
+    private static String fingerprint(final TemplateHandler handler, final String templateName) {
+        final Fingerprint fingerprint = new Fingerprint();
+        try {
+            return handler.addTemplateSource(templateName, fingerprint) ? fingerprint.toHex() : null;
+        } catch (final IOException e) {
+            // handled like a deleted template
+            return null;
+        }
+    }
+}
@@ -18,13 +18,20 @@ package de.r3s6.maven.constcreator;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import freemarker.cache.ClassTemplateLoader;
 import freemarker.cache.FileTemplateLoader;
 import freemarker.cache.MultiTemplateLoader;
 import freemarker.cache.TemplateLoader;
 import freemarker.template.Configuration;
-import freemarker.template.DefaultObjectWrapper;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
@@ -32,6 +39,19 @@ import freemarker.template.Version;
 
 /**
  * Handler for Freemarker templates.
+ * <p>
+ * The Freemarker configurations are cached JVM-wide, so parsed templates are
+ * reused by all executions in the same JVM (e.g. multiple executions, reactor
+ * builds or builds in a Maven daemon). A configuration is cached per project
+ * base directory and encoding. The built-in templates are loaded from a
+ * configuration shared by all projects.
+ * <p>
+ * Freemarker checks the modification time of the template source on every use,
+ * so a changed custom template is parsed again.
+ * <p>
+ * The templates loaded by a custom template (with {@code <#include>} or
+ * {@code <#import>}) are recorded while processing it, see
+ * {@link #getDependencies(String)}.
  *
  * @author Ralf Schandl
  */
@@ -39,16 +59,52 @@ public class TemplateHandler {
 
     private static final Version FREEMARKER_VERSION = new Version("2.3.32");
 
-    private Configuration configuration = new Configuration(FREEMARKER_VERSION);
+    /** Prefix of the templates that are always loaded from the classpath. */
+    private static final String BUILTIN_TEMPLATE_PREFIX = "plugin-default-templates/";
+
+    /** Max number of cached configurations. */
+    private static final int MAX_CACHED_CONFIGURATIONS = 32;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private static final Map<String, Configuration> CONFIGURATION_CACHE = Collections
+            .synchronizedMap(new LinkedHashMap<String, Configuration>(MAX_CACHED_CONFIGURATIONS, LOAD_FACTOR, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Configuration> eldest) {
+                    return size() > MAX_CACHED_CONFIGURATIONS;
+                }
+            });
+
+    /**
+     * The names of the templates loaded by the template processed on the current
+     * thread, null if no template is processed.
+     */
+    private static final ThreadLocal<Set<String>> LOADED_TEMPLATES = new ThreadLocal<>();
+
+    private final Configuration configuration;
+
+    /** The templates loaded by a processed template. Key is the template name. */
+    private final Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+
+    private final Configuration builtinConfiguration;
 
     TemplateHandler(final File projectBasedir, final String encoding) {
 
-        configuration.setObjectWrapper(new DefaultObjectWrapper(FREEMARKER_VERSION));
-        configuration.setDefaultEncoding(encoding);
-        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        configuration.setIncompatibleImprovements(FREEMARKER_VERSION);
+        configuration = CONFIGURATION_CACHE.computeIfAbsent(
+                projectBasedir.getAbsolutePath() + File.pathSeparator + encoding,
+                k -> createConfiguration(encoding, createProjectTemplateLoader(projectBasedir)));
+
+        builtinConfiguration = CONFIGURATION_CACHE.computeIfAbsent(File.pathSeparator + encoding,
+                k -> createConfiguration(encoding, createClasspathTemplateLoader()));
+    }
 
-        final ClassTemplateLoader classpathTemplateLoader = new ClassTemplateLoader(getClass(), "/");
+    private static TemplateLoader createClasspathTemplateLoader() {
+        return new ClassTemplateLoader(TemplateHandler.class, "/");
+    }
+
+    private static TemplateLoader createProjectTemplateLoader(final File projectBasedir) {
         final FileTemplateLoader projectTemplateLoader;
         try {
             projectTemplateLoader = new FileTemplateLoader(projectBasedir);
@@ -57,9 +113,41 @@ public class TemplateHandler {
             throw new IllegalStateException(e.getMessage(), e);
         }
 
-        final MultiTemplateLoader multiTemplateLoader = new MultiTemplateLoader(
-                new TemplateLoader[] { classpathTemplateLoader, projectTemplateLoader });
-        configuration.setTemplateLoader(multiTemplateLoader);
+        return new RecordingTemplateLoader(new MultiTemplateLoader(
+                new TemplateLoader[] { createClasspathTemplateLoader(), projectTemplateLoader }));
+    }
+
+    private static Configuration createConfiguration(final String encoding, final TemplateLoader templateLoader) {
+        final Configuration cfg = new Configuration(FREEMARKER_VERSION);
+        cfg.setObjectWrapper(new ModelObjectWrapper(FREEMARKER_VERSION));
+        cfg.setDefaultEncoding(encoding);
+        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        cfg.setIncompatibleImprovements(FREEMARKER_VERSION);
+        cfg.setTemplateLoader(templateLoader);
+        // Always check the modification time, so a changed template is not missed
+        cfg.setTemplateUpdateDelayMilliseconds(0);
+        return cfg;
+    }
+
+    /**
+     * Returns the configuration to use for the given template.
+     *
+     * @param templateName name of the Freemarker template
+     * @return the configuration
+     */
+    Configuration getConfiguration(final String templateName) {
+        // Built-in templates are found on the classpath first anyway.
+        return templateName.startsWith(BUILTIN_TEMPLATE_PREFIX) ? builtinConfiguration : configuration;
+    }
+
+    /**
+     * Returns the object wrapper used for the given template.
+     *
+     * @param templateName name of the Freemarker template
+     * @return the object wrapper
+     */
+    ModelObjectWrapper getObjectWrapper(final String templateName) {
+        return (ModelObjectWrapper) getConfiguration(templateName).getObjectWrapper();
     }
 
     /**
@@ -76,8 +164,94 @@ public class TemplateHandler {
      */
     public void process(final String templateName, final Object model, final PrintWriter pw)
             throws IOException, TemplateException {
-        final Template template = configuration.getTemplate(templateName);
-        template.process(model, pw);
+        final Set<String> loaded = new HashSet<>();
+        LOADED_TEMPLATES.set(loaded);
+        try {
+            final Template template = getConfiguration(templateName).getTemplate(templateName);
+            template.process(model, pw);
+        } finally {
+            LOADED_TEMPLATES.remove();
+            loaded.remove(templateName);
+            dependencies.computeIfAbsent(templateName, k -> ConcurrentHashMap.newKeySet()).addAll(loaded);
+        }
+    }
+
+    /**
+     * Returns the templates loaded by the given template (e.g. with
+     * {@code <#include>} or {@code <#import>}), whenever it was processed by this
+     * handler.
+     *
+     * @param templateName name of the Freemarker template
+     * @return the names of the loaded templates, sorted
+     */
+    public Set<String> getDependencies(final String templateName) {
+        return new TreeSet<>(dependencies.getOrDefault(templateName, Collections.emptySet()));
+    }
+
+    /**
+     * Adds the source of the given template to a fingerprint.
+     * <p>
+     * The template is not parsed, so this is cheap and doesn't fail on invalid
+     * templates.
+     *
+     * @param templateName name of the Freemarker template
+     * @param fingerprint  the fingerprint to update
+     * @return {@code false} if the template was not found
+     * @throws IOException if reading the template fails
+     */
+    public boolean addTemplateSource(final String templateName, final Fingerprint fingerprint) throws IOException {
+        final Configuration cfg = getConfiguration(templateName);
+        final TemplateLoader loader = cfg.getTemplateLoader();
+        final Object source = loader.findTemplateSource(templateName);
+        if (source == null) {
+            return false;
+        }
+        try (Reader reader = loader.getReader(source, cfg.getDefaultEncoding())) {
+            fingerprint.addContent(reader);
+        } finally {
+            loader.closeTemplateSource(source);
+        }
+        return true;
     }
 
+    /**
+     * Template loader recording the names of the found templates for the template
+     * processed on the current thread.
+     * <p>
+     * As the template update delay is 0, Freemarker looks up the source of a
+     * template every time it is used, even if it is cached.
+     */
+    private static final class RecordingTemplateLoader implements TemplateLoader {
+
+        private final TemplateLoader delegate;
+
+        RecordingTemplateLoader(final TemplateLoader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object findTemplateSource(final String name) throws IOException {
+            final Object source = delegate.findTemplateSource(name);
+            final Set<String> loaded = LOADED_TEMPLATES.get();
+            if (source != null && loaded != null) {
+                loaded.add(name);
+            }
+            return source;
+        }
+
+        @Override
+        public long getLastModified(final Object templateSource) {
+            return delegate.getLastModified(templateSource);
+        }
+
+        @Override
+        public Reader getReader(final Object templateSource, final String encoding) throws IOException {
+            return delegate.getReader(templateSource, encoding);
+        }
+
+        @Override
+        public void closeTemplateSource(final Object templateSource) throws IOException {
+            delegate.closeTemplateSource(templateSource);
+        }
+    }
 }
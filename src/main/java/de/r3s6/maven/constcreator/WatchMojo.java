@@ -0,0 +1,215 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Goal to generate the Java constant classes and generate them again whenever a
+ * properties file changes.
+ * <p>
+ * Uses the same configuration as the goal {@code generate}. After the initial
+ * generation the resource directory (and a custom template file) is watched
+ * until the build is interrupted (e.g. with Ctrl-C). If only properties files
+ * were modified, only their Java classes are generated again. If properties files
+ * were created or deleted or the template changed, all Java classes are checked
+ * like in an incremental build.
+ * <p>
+ * Errors are logged, but don't stop watching.
+ *
+ * @author Ralf Schandl
+ */
+@Mojo(name = "watch", requiresDependencyResolution = ResolutionScope.COMPILE)
+public class WatchMojo extends GenerateMojo {
+
+    /**
+     * Time in milliseconds without further changes before the Java classes are
+     * generated. Editors and version control tools often write several files or
+     * the same file several times in a row.
+     */
+    @Parameter(property = "properties-constants.debounce", defaultValue = "200")
+    private long debounce;
+
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+    private volatile WatchService watchService;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        checkConfig();
+
+        if (isSkip()) {
+            getLog().info("Skipped - skip == true");
+            return;
+        }
+
+        checkResourceDir();
+
+        final Path resourceDir = getResourceDir().toPath().toAbsolutePath().normalize();
+        final File templateFile = getCustomTemplateFile();
+        final Path templatePath = templateFile == null ? null : templateFile.toPath().toAbsolutePath().normalize();
+
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            watchService = service;
+            // register before generating, so no change is missed
+            registerAll(resourceDir);
+            if (templatePath != null && !templatePath.startsWith(resourceDir)) {
+                register(templatePath.getParent());
+            }
+
+            generateAll();
+            reportErrors();
+
+            getLog().info("Watching " + resourceDir + " for changes");
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<Path> changed = awaitChanges();
+                getLog().info(changed.isEmpty() ? "Changes detected" : "Changed: " + changed.size() + " file(s)");
+                generateChanges(changed, templatePath);
+                reportErrors();
+            }
+        } catch (final ClosedWatchServiceException e) {
+            // IGNORED: watching was stopped
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Can't watch " + resourceDir + ": " + e, e);
+        } finally {
+            watchService = null;
+            watchedDirs.clear();
+        }
+    }
+
+    /**
+     * Generates the Java classes after changes. Logs errors instead of throwing
+     * them, so watching continues.
+     *
+     * @param changed      the changed files, empty if unknown
+     * @param templatePath the custom template file, null if none
+     */
+    private void generateChanges(final Set<Path> changed, final Path templatePath) {
+        try {
+            if (changed.isEmpty() || templatePath != null && changed.contains(templatePath)) {
+                generateAll();
+            } else {
+                regenerate(changed);
+            }
+        } catch (final MojoExecutionException | RuntimeException e) { // NOCS: IllegalCatch
+            // e.g. a template with syntax errors -- keep watching until it is fixed
+            getLog().error("Generation failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stops watching. The goal returns after the current generation is finished.
+     */
+    void stop() {
+        final WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (final IOException e) {
+                getLog().debug("Closing watch service failed: " + e);
+            }
+        }
+    }
+
+    private void reportErrors() {
+        final List<String> errors = takeErrorMessages();
+        if (!errors.isEmpty()) {
+            getLog().error("Generation failed:\n" + String.join("\n", errors));
+        }
+    }
+
+    /**
+     * Waits for changes. After the first change, waits until no further change
+     * happens for {@code debounce} milliseconds.
+     *
+     * @return the changed files, empty if the changed files are unknown (events
+     *         were lost or a directory was created)
+     * @throws ClosedWatchServiceException if watching was stopped
+     * @throws InterruptedException        if interrupted while waiting
+     * @throws IOException                 if a new directory can't be watched
+     */
+    private Set<Path> awaitChanges() throws InterruptedException, IOException {
+        final Set<Path> changed = new LinkedHashSet<>();
+        boolean overflow = false;
+        WatchKey key = watchService.take();
+        while (key != null) {
+            final Path dir = watchedDirs.get(key);
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                    overflow = true;
+                    continue;
+                }
+                final Path path = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    // a new directory might already contain files
+                    overflow = true;
+                    registerAll(path);
+                }
+                changed.add(path);
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(key);
+            }
+            key = watchService.poll(debounce, TimeUnit.MILLISECONDS);
+        }
+        if (overflow) {
+            changed.clear();
+        }
+        return changed;
+    }
+
+    private void registerAll(final Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path d, final BasicFileAttributes attrs)
+                    throws IOException {
+                register(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(final Path dir) throws IOException {
+        watchedDirs.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+    }
+}
@@ -0,0 +1,60 @@
+<#ftl encoding="utf-8">
+<#--
+  Copyright 2023 Ralf Schandl
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+-->
+<#-- Maximum number of entries per method, to stay below the byte code limit of a method -->
+<#assign chunkSize = 1000>
+<#assign baseName = locale?has_content?then(fullClassName?remove_ending("_" + locale), fullClassName)>
+package ${packageName};
+
+/**
+ * Resource bundle for ${propertiesFileName}.
+ * <p>
+ * Load it with {@code ResourceBundle.getBundle("${baseName}", locale)}.
+ *
+ * @author properties-constants-maven-plugin
+ */
+public final class ${simpleClassName} extends java.util.ListResourceBundle {
+<#if (entries?size <= chunkSize)>
+
+    @Override
+    protected Object[][] getContents() {
+        return new Object[][] {
+<#list entries as entry>
+            { "${entry.javaKey}", "${entry.javaValue}" },
+</#list>
+        };
+    }
+<#else>
+<#assign chunks = entries?chunk(chunkSize)>
+
+    @Override
+    protected Object[][] getContents() {
+        final Object[][] contents = new Object[${entries?size?c}][];
+<#list chunks as chunk>
+        fillContents${chunk?index}(contents);
+</#list>
+        return contents;
+    }
+<#list chunks as chunk>
+
+    private static void fillContents${chunk?index}(final Object[][] contents) {
+<#list chunk as entry>
+        contents[${(chunk?index * chunkSize + entry?index)?c}] = new Object[] { "${entry.javaKey}", "${entry.javaValue}" };
+</#list>
+    }
+</#list>
+</#if>
+}
@@ -0,0 +1,127 @@
+<#ftl encoding="utf-8">
+<#--
+  Copyright 2023 Ralf Schandl
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+-->
+<#assign genPropertiesFilenameConstant = ((options.genPropertiesFilenameConstant!"true") == "true")>
+<#assign propertiesFilenameConstant    = options.propertiesFilenameConstant!"PROPERTIES_FILE_NAME">
+<#assign genBundleNameConstant         = ((options.genBundleNameConstant!"false") == "true")>
+<#assign bundleNameConstant            = options.bundleNameConstant!"BUNDLE_NAME">
+package ${packageName};
+
+/**
+ * Keys of ${propertiesFileName}.
+ * <p>
+ * The enum constants represent the keys to access the properties. The values
+ * can be loaded in a single pass into an array indexed by the ordinal of the
+ * keys, see {@link #loadValues(java.util.ResourceBundle)}.
+ *
+ * @author properties-constants-maven-plugin
+ */
+public enum ${simpleClassName} {
+<#list entries as entry>
+
+    /**
+     * Key of <code>${entry.javadocKey}=${entry.javadocValue}</code>.
+     */
+    ${entry.constantName}("${entry.javaKey}")<#if entry?has_next>,<#else>;</#if>
+<#else>
+    ;
+</#list>
+<#if genPropertiesFilenameConstant>
+
+    /**
+     * Properties file used to generate this class: "${propertiesFileName}".
+     */
+    public static final String ${propertiesFilenameConstant} = "${propertiesFileName}";
+</#if>
+<#if genBundleNameConstant>
+
+    /**
+     * ResourceBundle used to generate this class: "${bundleName}".
+     */
+    public static final String ${bundleNameConstant} = "${bundleName}";
+</#if>
+
+    /** The key of the property. */
+    private final String key;
+
+    ${simpleClassName}(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the key to access the property.
+     *
+     * @return the key
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Loads the values of all keys from a resource bundle.
+     *
+     * @param bundle the resource bundle
+     * @return the values
+     */
+    public static Values loadValues(final java.util.ResourceBundle bundle) {
+        final ${simpleClassName}[] keys = values();
+        final String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (bundle.containsKey(keys[i].key)) {
+                values[i] = bundle.getString(keys[i].key);
+            }
+        }
+        return new Values(values);
+    }
+
+    /**
+     * Loads the values of all keys from properties.
+     *
+     * @param properties the properties
+     * @return the values
+     */
+    public static Values loadValues(final java.util.Properties properties) {
+        final ${simpleClassName}[] keys = values();
+        final String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = properties.getProperty(keys[i].key);
+        }
+        return new Values(values);
+    }
+
+    /**
+     * The values of the properties, stored in an array indexed by the ordinal of
+     * the keys.
+     */
+    public static final class Values {
+
+        private final String[] values;
+
+        private Values(final String[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Returns the value of a key.
+         *
+         * @param key the key
+         * @return the value or null if the key has no value
+         */
+        public String get(final ${simpleClassName} key) {
+            return values[key.ordinal()];
+        }
+    }
+}
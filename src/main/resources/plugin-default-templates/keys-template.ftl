@@ -47,7 +47,7 @@ public final class ${simpleClassName} {
     /**
      * Key of <code>${entry.javadocKey}=${entry.javadocValue}</code>.
      */
-    public static final String ${entry.constantName} = "${entry.key}";
+    public static final String ${entry.constantName} = "${entry.javaKey}";
 </#list>
 
     /** Hidden constructor. */
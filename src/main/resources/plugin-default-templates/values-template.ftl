@@ -29,7 +29,7 @@ public final class ${simpleClassName} {
     /**
      * Value of <code>${entry.javadocKey}=${entry.javadocValue}</code>.
      */
-    public static final String ${entry.constantName} = "${entry.value?j_string}";
+    public static final String ${entry.constantName} = "${entry.javaValue}";
 </#list>
 
     /** Hidden constructor. */
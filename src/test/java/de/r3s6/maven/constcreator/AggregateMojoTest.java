@@ -0,0 +1,218 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.plugin.descriptor.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateMojoTest {
+
+    @Mock
+    private MavenProject projectA;
+
+    @Mock
+    private MavenProject projectB;
+
+    private TestMavenLog mavenLog = new TestMavenLog();
+
+    @Test
+    void testGenerate(@TempDir final File baseDir) throws Exception {
+        File baseDirA = new File(baseDir, "a");
+        File baseDirB = new File(baseDir, "b");
+        when(projectA.getBasedir()).thenReturn(baseDirA);
+        when(projectB.getBasedir()).thenReturn(baseDirB);
+
+        write(new File(baseDirA, "src/main/resources/first.properties"), "first=1\n");
+        write(new File(baseDirA, "src/main/resources/second.properties"), "second=2\n");
+        write(new File(baseDirB, "src/main/resources/third.properties"), "third=3\n");
+
+        AggregateMojo mojo = createMojo(2);
+        mojo.generate(Arrays.asList(new AggregateMojo.Module("a", createModuleMojo(projectA, "de.r3s6.a", baseDirA)),
+                new AggregateMojo.Module("b", createModuleMojo(projectB, "de.r3s6.b", baseDirB))));
+
+        File outputDirA = new File(baseDirA, "target/generated");
+        File outputDirB = new File(baseDirB, "target/generated");
+        assertTrue(new File(outputDirA, "de/r3s6/a/First.java").isFile());
+        assertTrue(new File(outputDirA, "de/r3s6/a/Second.java").isFile());
+        assertTrue(new File(outputDirB, "de/r3s6/b/Third.java").isFile());
+
+        verify(projectA).addCompileSourceRoot(outputDirA.getPath());
+        verify(projectB).addCompileSourceRoot(outputDirB.getPath());
+
+        mavenLog.assertContainsSubString("[info] Java files: 2 written, 0 unchanged");
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 0 unchanged");
+    }
+
+    @Test
+    void testErrorsOfModule(@TempDir final File baseDir) throws Exception {
+        File baseDirA = new File(baseDir, "a");
+        File baseDirB = new File(baseDir, "b");
+        when(projectB.getBasedir()).thenReturn(baseDirB);
+
+        write(new File(baseDirA, "src/main/resources/first.properties"), "first=1\n");
+        write(new File(baseDirB, "src/main/resources/third.properties"), "third=3\n");
+
+        AggregateMojo mojo = createMojo(0);
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class,
+                () -> mojo.generate(Arrays.asList(
+                        new AggregateMojo.Module("a", createModuleMojo(projectA, "de.assert.a", baseDirA)),
+                        new AggregateMojo.Module("b", createModuleMojo(projectB, "de.r3s6.b", baseDirB)))));
+
+        assertEquals("a: Configured basePackage \"de.assert.a\" is invalid.", thr.getMessage());
+        assertFalse(new File(baseDirA, "target/generated").exists());
+        assertTrue(new File(baseDirB, "target/generated/de/r3s6/b/Third.java").isFile());
+        verify(projectA, never()).addCompileSourceRoot(new File(baseDirA, "target/generated").getPath());
+    }
+
+    @Test
+    void testSkippedModule(@TempDir final File baseDir) throws Exception {
+        File baseDirA = new File(baseDir, "a");
+        write(new File(baseDirA, "src/main/resources/first.properties"), "first=1\n");
+
+        GenerateMojo moduleMojo = createModuleMojo(projectA, "de.r3s6.a", baseDirA);
+        inject(moduleMojo, "skip", true);
+
+        createMojo(0).generate(Arrays.asList(new AggregateMojo.Module("a", moduleMojo)));
+
+        assertFalse(new File(baseDirA, "target/generated").exists());
+        mavenLog.assertContainsSubString("[info] a: Skipped - skip == true");
+    }
+
+    @Test
+    void testMergeConfiguration() throws Exception {
+        MojoDescriptor descriptor = new MojoDescriptor();
+        descriptor.setParameters(Arrays.asList(parameter("skip", "${properties-constants.skip}", null),
+                parameter("basePackage", null, null), parameter("template", null, "keys"),
+                parameter("includes", null, "*.properties")));
+
+        Xpp3Dom pluginConfig = new Xpp3Dom("configuration");
+        pluginConfig.addChild(child("basePackage", "de.r3s6.plugin", null));
+        pluginConfig.addChild(child("template", "enum", null));
+        Xpp3Dom executionConfig = new Xpp3Dom("configuration");
+        executionConfig.addChild(child("basePackage", "de.r3s6.execution", null));
+
+        Xpp3Dom merged = AggregateMojo.mergeConfiguration(executionConfig, pluginConfig, descriptor);
+
+        assertNull(merged.getChild("skip"));
+        assertEquals("de.r3s6.execution", merged.getChild("basePackage").getValue());
+        assertEquals("enum", merged.getChild("template").getValue());
+        assertEquals("*.properties", merged.getChild("includes").getAttribute("default-value"));
+
+        // the model is not modified
+        assertEquals("de.r3s6.plugin", pluginConfig.getChild("basePackage").getValue());
+        assertEquals(1, executionConfig.getChildCount());
+
+        // explicitly configured skip
+        executionConfig.addChild(child("skip", "true", null));
+        merged = AggregateMojo.mergeConfiguration(executionConfig, null, descriptor);
+        assertEquals("true", merged.getChild("skip").getValue());
+    }
+
+    private AggregateMojo createMojo(final int threads) {
+        AggregateMojo mojo = new AggregateMojo();
+        inject(mojo, "threads", threads);
+        mojo.setLog(mavenLog);
+        return mojo;
+    }
+
+    private GenerateMojo createModuleMojo(final MavenProject project, final String basePackage,
+            final File baseDir) {
+        GenerateMojo mojo = new GenerateMojo();
+        inject(mojo, "project", project);
+        DefaultBuildContext buildContext = new DefaultBuildContext();
+        buildContext.enableLogging(new ConsoleLogger(Logger.LEVEL_DISABLED, "test"));
+        mojo.setBuildContext(buildContext);
+        inject(mojo, "basePackage", basePackage);
+        inject(mojo, "classNameSuffix", "");
+        inject(mojo, "sourceEncoding", "UTF-8");
+        inject(mojo, "includes", new String[] { "**/*.properties" });
+        inject(mojo, "resourceDir", new File(baseDir, "src/main/resources"));
+        inject(mojo, "outputDir", new File(baseDir, "target/generated"));
+        inject(mojo, "templateOptions", new HashMap<String, String>());
+        inject(mojo, "incremental", true);
+        inject(mojo, "stateDir", new File(baseDir, "target/state"));
+        mojo.setLog(mavenLog);
+        return mojo;
+    }
+
+    private static Parameter parameter(final String name, final String expression, final String defaultValue) {
+        Parameter parameter = new Parameter();
+        parameter.setName(name);
+        parameter.setExpression(expression);
+        parameter.setDefaultValue(defaultValue);
+        return parameter;
+    }
+
+    private static Xpp3Dom child(final String name, final String value, final String defaultValue) {
+        Xpp3Dom dom = new Xpp3Dom(name);
+        dom.setValue(value);
+        if (defaultValue != null) {
+            dom.setAttribute("default-value", defaultValue);
+        }
+        return dom;
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Inject a value into a field of an object.
+     *
+     * @param target    the target object
+     * @param fieldName name of the field to set
+     * @param value     the value to assign
+     */
+    private static void inject(final Object target, final String fieldName, final Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new AssertionError("Error setting " + fieldName, e);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import freemarker.template.TemplateException;
+
+/**
+ * Verifies that the native implementation of the built-in templates creates
+ * exactly the same output as the Freemarker templates.
+ */
+class BuiltinTemplateEmitterTest {
+
+    private static final String KEYS_TEMPLATE = "plugin-default-templates/keys-template.ftl";
+    private static final String VALUES_TEMPLATE = "plugin-default-templates/values-template.ftl";
+    private static final String ENUM_TEMPLATE = "plugin-default-templates/enum-template.ftl";
+    private static final String BUNDLE_TEMPLATE = "plugin-default-templates/bundle-template.ftl";
+
+    private final TemplateHandler templateHandler = new TemplateHandler(new File("."), "UTF-8");
+
+    @Test
+    void testKeysDefaultOptions() throws IOException, TemplateException {
+        assertKeys(Collections.emptyMap());
+    }
+
+    @Test
+    void testKeysAllOptions() throws IOException, TemplateException {
+        Map<String, String> options = new HashMap<>();
+        options.put("genPropertiesFilenameConstant", "false");
+        options.put("genBundleNameConstant", "true");
+        options.put("bundleNameConstant", "THE_BUNDLE");
+        assertKeys(options);
+
+        options.put("genPropertiesFilenameConstant", "true");
+        options.put("propertiesFilenameConstant", "THE_FILE");
+        assertKeys(options);
+
+        // only exactly "true" enables an option
+        options.put("genPropertiesFilenameConstant", "TRUE");
+        options.put("genBundleNameConstant", "yes");
+        assertKeys(options);
+    }
+
+    @Test
+    void testKeysNoEntries() throws IOException, TemplateException {
+        assertEquals(render(KEYS_TEMPLATE, Collections.emptyList(), Collections.emptyMap()),
+                emitKeys(Collections.emptyList(), Collections.emptyMap()));
+    }
+
+    @Test
+    void testValues() throws IOException, TemplateException {
+        assertEquals(render(VALUES_TEMPLATE, entries(), Collections.emptyMap()), emitValues(entries()));
+    }
+
+    @Test
+    void testValuesNoEntries() throws IOException, TemplateException {
+        assertEquals(render(VALUES_TEMPLATE, Collections.emptyList(), Collections.emptyMap()),
+                emitValues(Collections.emptyList()));
+    }
+
+    @Test
+    void testEnum() throws IOException, TemplateException {
+        assertEquals(render(ENUM_TEMPLATE, entries(), Collections.emptyMap()),
+                emitEnum(entries(), Collections.emptyMap()));
+
+        Map<String, String> options = new HashMap<>();
+        options.put("genPropertiesFilenameConstant", "false");
+        options.put("genBundleNameConstant", "true");
+        options.put("bundleNameConstant", "THE_BUNDLE");
+        assertEquals(render(ENUM_TEMPLATE, entries(), options), emitEnum(entries(), options));
+    }
+
+    @Test
+    void testEnumNoEntries() throws IOException, TemplateException {
+        assertEquals(render(ENUM_TEMPLATE, Collections.emptyList(), Collections.emptyMap()),
+                emitEnum(Collections.emptyList(), Collections.emptyMap()));
+    }
+
+    @Test
+    void testEnumLoadValues(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        Properties props = new Properties();
+        for (PropEntry entry : entries.subList(1, entries.size())) {
+            props.setProperty(entry.getKey(), entry.getValue());
+        }
+
+        try (URLClassLoader loader = compile(tempDir, emitEnum(entries, Collections.emptyMap()))) {
+            Class<?> cls = loader.loadClass(genRequest().getFullClassName());
+            Object[] keys = cls.getEnumConstants();
+            assertEquals(entries.size(), keys.length);
+
+            Object values = cls.getMethod("loadValues", Properties.class).invoke(null, props);
+            Method get = values.getClass().getMethod("get", cls);
+            assertNull(get.invoke(values, keys[0]));
+            for (int i = 1; i < keys.length; i++) {
+                assertEquals(entries.get(i).getKey(), cls.getMethod("key").invoke(keys[i]));
+                assertEquals(entries.get(i).getValue(), get.invoke(values, keys[i]));
+            }
+        }
+    }
+
+    @Test
+    void testBundle() throws IOException, TemplateException {
+        GeneratorRequest genReq = bundleRequest("");
+        assertEquals(render(BUNDLE_TEMPLATE, genReq, entries(), Collections.emptyMap()),
+                emitBundle(genReq, entries()));
+
+        genReq = bundleRequest("de_DE");
+        assertEquals(render(BUNDLE_TEMPLATE, genReq, entries(), Collections.emptyMap()),
+                emitBundle(genReq, entries()));
+        assertEquals(render(BUNDLE_TEMPLATE, genReq, Collections.emptyList(), Collections.emptyMap()),
+                emitBundle(genReq, Collections.emptyList()));
+
+        // entries distributed over several methods
+        assertEquals(render(BUNDLE_TEMPLATE, genReq, manyEntries(2500), Collections.emptyMap()),
+                emitBundle(genReq, manyEntries(2500)));
+    }
+
+    @Test
+    void testBundleLoad(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        List<PropEntry> many = manyEntries(1500);
+        try (URLClassLoader loader = compile(tempDir, bundleRequest(""), emitBundle(bundleRequest(""), entries));
+                URLClassLoader loaderDe = compile(tempDir, bundleRequest("de"),
+                        emitBundle(bundleRequest("de"), many))) {
+
+            ResourceBundle bundle = ResourceBundle.getBundle("de.r3s6.test.Messages", Locale.GERMAN, loaderDe);
+            assertEquals(Locale.GERMAN, bundle.getLocale());
+            for (PropEntry entry : entries) {
+                assertEquals(entry.getValue(), bundle.getString(entry.getKey()));
+            }
+            for (PropEntry entry : many) {
+                assertEquals(entry.getValue(), bundle.getString(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void testSelectExternalValues() {
+        assertEquals(Collections.emptyList(), BuiltinTemplateEmitter.selectExternalValues(entries(),
+                Collections.emptyMap()));
+
+        List<PropEntry> external = BuiltinTemplateEmitter.selectExternalValues(entries(),
+                Collections.singletonMap("maxConstantValueSize", "20"));
+        assertEquals(Arrays.asList("html", "ctrl"),
+                external.stream().map(PropEntry::getKey).collect(Collectors.toList()));
+
+        assertThrows(IllegalArgumentException.class, () -> BuiltinTemplateEmitter
+                .selectExternalValues(entries(), Collections.singletonMap("maxConstantValueSize", "big")));
+    }
+
+    @Test
+    void testEnumMaxConstants(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = manyEntries(BuiltinTemplateEmitter.MAX_ENUM_CONSTANTS);
+        try (URLClassLoader loader = compile(tempDir, emitEnum(entries, Collections.emptyMap()))) {
+            Class<?> cls = loader.loadClass(genRequest().getFullClassName());
+            assertEquals(BuiltinTemplateEmitter.MAX_ENUM_CONSTANTS, cls.getEnumConstants().length);
+        }
+    }
+
+    @Test
+    void testConstantSize() {
+        assertEquals(0, BuiltinTemplateEmitter.constantSize(""));
+        assertEquals(3, BuiltinTemplateEmitter.constantSize("abc"));
+        // NUL, 2-byte, 3-byte and surrogate pair (2 * 3 bytes)
+        assertEquals(2 + 2 + 3 + 6, BuiltinTemplateEmitter.constantSize("\u0000\u00e4\u20ac\ud83d\ude00"));
+    }
+
+    @Test
+    void testExternalValues(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        List<PropEntry> external = Arrays.asList(entries.get(1), entries.get(3), entries.get(4));
+
+        GeneratorRequest genReq = genRequest();
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitValues(genReq, entries, external, sw);
+        String code = sw.toString();
+        assertTrue(code.contains("public static String getHtml() {"), code);
+        assertFalse(code.contains("String HTML"), code);
+        assertTrue(code.contains("public static final String WELCOME_MESSAGE = \"Hello there\";"), code);
+
+        // compile the generated class and read the values from the resource
+        File pkgDir = new File(tempDir, "de/r3s6/test");
+        pkgDir.mkdirs();
+        Files.write(new File(pkgDir, BuiltinTemplateEmitter.valuesResourceName(genReq)).toPath(),
+                BuiltinTemplateEmitter.encodeValues(external));
+
+        try (URLClassLoader loader = compile(tempDir, code)) {
+            Class<?> cls = loader.loadClass(genReq.getFullClassName());
+            for (PropEntry entry : external) {
+                assertEquals(entry.getValue(), cls.getMethod(entry.getGetterName()).invoke(null));
+            }
+            assertEquals("Hello there", cls.getField("WELCOME_MESSAGE").get(null));
+        }
+    }
+
+    @Test
+    void testLookupMethod(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        entries.remove(2); // key with quote creates invalid code
+        assertLookup(new File(tempDir, "small"), entries);
+
+        // keys distributed over several lookup methods
+        List<PropEntry> many = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            many.add(new PropEntry("key." + i, "value"));
+        }
+        assertLookup(new File(tempDir, "many"), many);
+    }
+
+    @Test
+    void testNoLookupMethodByDefault() throws IOException {
+        assertFalse(emitKeys(entries(), Collections.emptyMap()).contains("indexOf"));
+    }
+
+    private void assertLookup(final File dir, final List<PropEntry> entries) throws Exception {
+        String code = emitKeys(entries, Collections.singletonMap("genLookupMethod", "true"));
+        try (URLClassLoader loader = compile(dir, code)) {
+            Method indexOf = loader.loadClass(genRequest().getFullClassName()).getMethod("indexOf", String.class);
+            for (int i = 0; i < entries.size(); i++) {
+                assertEquals(i, indexOf.invoke(null, entries.get(i).getKey()));
+            }
+            assertEquals(-1, indexOf.invoke(null, "unknown.key"));
+            assertEquals(-1, indexOf.invoke(null, (Object) null));
+        }
+    }
+
+    /**
+     * Compiles the generated class.
+     *
+     * @param dir  the directory for the source and the class file
+     * @param code the source code of the generated class
+     * @return a class loader to load the compiled class
+     */
+    private static URLClassLoader compile(final File dir, final String code) throws IOException {
+        return compile(dir, genRequest(), code);
+    }
+
+    private static URLClassLoader compile(final File dir, final GeneratorRequest genReq, final String code)
+            throws IOException {
+        return compile(dir, genReq.getJavaFileName(), code);
+    }
+
+    private static URLClassLoader compile(final File dir, final String javaFileName, final String code)
+            throws IOException {
+        File javaFile = new File(dir, javaFileName);
+        javaFile.getParentFile().mkdirs();
+        Files.write(javaFile.toPath(), code.getBytes(StandardCharsets.UTF_8));
+
+        // other classes in dir (e.g. part interfaces) are compiled as needed
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-encoding", "UTF-8", "-sourcepath", dir.getPath(),
+                javaFile.getPath()));
+        return new URLClassLoader(new URL[] { dir.toURI().toURL() }, null);
+    }
+
+    @Test
+    void testKeysParts(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        entries.remove(2); // key with quote creates invalid code
+        GeneratorRequest genReq = genRequest();
+        List<List<PropEntry>> parts = Arrays.asList(entries.subList(0, 2), entries.subList(2, 5));
+        for (int i = 0; i < parts.size(); i++) {
+            StringWriter sw = new StringWriter();
+            BuiltinTemplateEmitter.emitKeysPart(genReq, i, parts.get(i), sw);
+            String code = sw.toString();
+            assertTrue(code.contains("interface MessagesKeysPart" + i + " {"), code);
+            assertFalse(code.contains("PROPERTIES_FILE_NAME"), code);
+            writeSource(tempDir, BuiltinTemplateEmitter.partRequest(genReq, i), code);
+        }
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitKeysMain(genReq, parts.size(), Collections.emptyMap(), sw);
+        String code = sw.toString();
+        assertTrue(code.contains("public final class MessagesKeys implements\n        MessagesKeysPart0,\n"
+                + "        MessagesKeysPart1 {\n"), code);
+        assertTrue(code.contains("public static final String PROPERTIES_FILE_NAME = "), code);
+        writeSource(tempDir, genReq, code);
+
+        assertClientAccess(tempDir, entries, Collections.emptyList(), PropEntry::getKey);
+    }
+
+    @Test
+    void testValuesParts(@TempDir final File tempDir) throws Exception {
+        List<PropEntry> entries = entries();
+        GeneratorRequest genReq = genRequest();
+        List<List<PropEntry>> parts = Arrays.asList(entries.subList(0, 3), entries.subList(3, 6));
+        List<List<PropEntry>> external = Arrays.asList(Collections.singletonList(entries.get(1)),
+                Collections.singletonList(entries.get(4)));
+        for (int i = 0; i < parts.size(); i++) {
+            GeneratorRequest partReq = BuiltinTemplateEmitter.partRequest(genReq, i);
+            StringWriter sw = new StringWriter();
+            BuiltinTemplateEmitter.emitValuesPart(genReq, i, parts.get(i), external.get(i), sw);
+            writeSource(tempDir, partReq, sw.toString());
+            Files.write(new File(tempDir, "de/r3s6/test/" + BuiltinTemplateEmitter.valuesResourceName(partReq))
+                    .toPath(), BuiltinTemplateEmitter.encodeValues(external.get(i)));
+        }
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitValuesMain(genReq, external, sw);
+        String code = sw.toString();
+        assertTrue(code.contains("        return MessagesKeysPart0.getHtml();\n"), code);
+        writeSource(tempDir, genReq, code);
+
+        assertClientAccess(tempDir, entries, Arrays.asList(entries.get(1), entries.get(4)), PropEntry::getValue);
+    }
+
+    /**
+     * Compiles a class in another package, that accesses all constants and
+     * accessor methods through the constants class, and checks their values.
+     */
+    private static void assertClientAccess(final File dir, final List<PropEntry> entries,
+            final List<PropEntry> external, final Function<PropEntry, String> expected) throws Exception {
+        String client = "package de.r3s6.client;\n\nimport de.r3s6.test.MessagesKeys;\n\n"
+                + "public final class Client {\n    public static String[] values() {\n        return new String[] {\n"
+                + entries.stream().map(e -> "            MessagesKeys."
+                        + (external.contains(e) ? e.getGetterName() + "()" : e.getConstantName()) + ",\n")
+                        .collect(Collectors.joining())
+                + "        };\n    }\n}\n";
+        try (URLClassLoader loader = compile(dir, "de/r3s6/client/Client.java", client)) {
+            String[] values = (String[]) loader.loadClass("de.r3s6.client.Client").getMethod("values").invoke(null);
+            assertEquals(entries.stream().map(expected).collect(Collectors.toList()), Arrays.asList(values));
+        }
+    }
+
+    private static void writeSource(final File dir, final GeneratorRequest genReq, final String code)
+            throws IOException {
+        File javaFile = new File(dir, genReq.getJavaFileName());
+        javaFile.getParentFile().mkdirs();
+        Files.write(javaFile.toPath(), code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testUnusualCharacters(@TempDir final File tempDir) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0; c < 0x100; c++) {
+            sb.append(c);
+        }
+        sb.append("\u20ac\ud83d\ude00\ud800x\udc00\u2028\ud83d");
+        List<PropEntry> entries = Arrays.asList(new PropEntry("all", sb.toString()),
+                new PropEntry("quote\"back\\slash", "\"\\"), new PropEntry("del.key", "\u007f"));
+
+        String values = emitValues(entries);
+        assertEquals(render(VALUES_TEMPLATE, entries, Collections.emptyMap()), values);
+        try (URLClassLoader loader = compile(new File(tempDir, "values"), values)) {
+            Class<?> cls = loader.loadClass(genRequest().getFullClassName());
+            for (PropEntry entry : entries) {
+                assertEquals(entry.getValue(), cls.getField(entry.getConstantName()).get(null));
+            }
+        }
+
+        String keys = emitKeys(entries, Collections.emptyMap());
+        assertEquals(render(KEYS_TEMPLATE, entries, Collections.emptyMap()), keys);
+        try (URLClassLoader loader = compile(new File(tempDir, "keys"), keys)) {
+            Class<?> cls = loader.loadClass(genRequest().getFullClassName());
+            for (PropEntry entry : entries) {
+                assertEquals(entry.getKey(), cls.getField(entry.getConstantName()).get(null));
+            }
+        }
+    }
+
+    private void assertKeys(final Map<String, String> options) throws IOException, TemplateException {
+        assertEquals(render(KEYS_TEMPLATE, entries(), options), emitKeys(entries(), options));
+    }
+
+    private String emitKeys(final List<PropEntry> entries, final Map<String, String> options) throws IOException {
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitKeys(genRequest(), entries, options, sw);
+        return sw.toString();
+    }
+
+    private String emitEnum(final List<PropEntry> entries, final Map<String, String> options) throws IOException {
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitEnum(genRequest(), entries, options, sw);
+        return sw.toString();
+    }
+
+    private String emitBundle(final GeneratorRequest genReq, final List<PropEntry> entries) throws IOException {
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitBundle(genReq, entries, sw);
+        return sw.toString();
+    }
+
+    private String emitValues(final List<PropEntry> entries) throws IOException {
+        StringWriter sw = new StringWriter();
+        BuiltinTemplateEmitter.emitValues(genRequest(), entries, sw);
+        return sw.toString();
+    }
+
+    private String render(final String template, final List<PropEntry> entries, final Map<String, String> options)
+            throws IOException, TemplateException {
+        return render(template, genRequest(), entries, options);
+    }
+
+    private String render(final String template, final GeneratorRequest genReq, final List<PropEntry> entries,
+            final Map<String, String> options) throws IOException, TemplateException {
+        Map<String, Object> model = new HashMap<>();
+        model.put("packageName", genReq.getPackageName());
+        model.put("simpleClassName", genReq.getSimpleClassName());
+        model.put("fullClassName", genReq.getFullClassName());
+        model.put("propertiesFileName", genReq.getPropertiesFileName());
+        model.put("javaFileName", genReq.getJavaFileName());
+        model.put("bundleName", genReq.getBundleName());
+        model.put("isXmlProperties", genReq.isXmlProperties());
+        model.put("locale", genReq.getLocale());
+        model.put("entries", entries);
+        model.put("options", options);
+
+        StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            templateHandler.process(template, model, pw);
+        }
+        return sw.toString();
+    }
+
+    private static GeneratorRequest genRequest() {
+        GeneratorRequest.Builder b = new GeneratorRequest.Builder();
+        b.className("de.r3s6.test.MessagesKeys");
+        b.javaFileName("de/r3s6/test/MessagesKeys.java");
+        b.javaFile(new File("de/r3s6/test/MessagesKeys.java"));
+        b.propertiesFileName("de/r3s6/test/messages.properties");
+        b.propertiesFile(new File("de/r3s6/test/messages.properties"));
+        b.xmlProperties(false);
+        b.bundleName("de.r3s6.test.messages");
+        return b.build();
+    }
+
+    private static GeneratorRequest bundleRequest(final String locale) {
+        String className = "Messages" + (locale.isEmpty() ? "" : "_" + locale);
+        String fileName = "messages" + (locale.isEmpty() ? "" : "_" + locale) + ".properties";
+        GeneratorRequest.Builder b = new GeneratorRequest.Builder();
+        b.className("de.r3s6.test." + className);
+        b.javaFileName("de/r3s6/test/" + className + ".java");
+        b.javaFile(new File("de/r3s6/test/" + className + ".java"));
+        b.propertiesFileName("de/r3s6/test/" + fileName);
+        b.propertiesFile(new File("de/r3s6/test/" + fileName));
+        b.bundleName("de.r3s6.test.messages");
+        b.locale(locale);
+        return b.build();
+    }
+
+    private static List<PropEntry> manyEntries(final int count) {
+        List<PropEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(new PropEntry("key." + i, "value " + i));
+        }
+        return entries;
+    }
+
+    private static List<PropEntry> entries() {
+        List<PropEntry> entries = new ArrayList<>();
+        entries.add(new PropEntry("welcome.message", "Hello there"));
+        entries.add(new PropEntry("html", "<b>bold</b> & {@code x} */"));
+        entries.add(new PropEntry("quote\"key", "say \"hi\" \\ C:\\temp"));
+        entries.add(new PropEntry("ctrl", "tab\tnl\ncr\rff\fbs\bnul\u0000us\u001fdel\u007f"));
+        entries.add(new PropEntry("unicode.\u00e4\u00f6\u00fc", "\u20ac \ud83d\ude00 \u2028"));
+        entries.add(new PropEntry("empty", ""));
+        return entries;
+    }
+}
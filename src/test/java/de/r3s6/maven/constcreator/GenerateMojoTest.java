@@ -21,19 +21,26 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
 import org.codehaus.plexus.util.Scanner;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +51,7 @@ import org.junit.platform.commons.support.ReflectionSupport;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
 
 @ExtendWith(MockitoExtension.class)
 class GenerateMojoTest {
@@ -88,6 +96,19 @@ class GenerateMojoTest {
         assertEquals("Configured classNameSuffix \"%Hello\" is invalid.", thr.getMessage());
     }
 
+    @Test
+    void testLookupMethodWithPartClasses() {
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "templateOptions", Collections.singletonMap("genLookupMethod", "true"));
+        inject(mojo, "maxKeysPerClass", 1000);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertEquals("Template option genLookupMethod can't be combined with maxKeysPerClass or maxSourceSize.",
+                thr.getMessage());
+    }
+
     @Test
     void testNotExistingResourceDir() {
 
@@ -105,39 +126,996 @@ class GenerateMojoTest {
         GenerateMojo mojo = createMojo("de.r3s6.maven");
         inject(mojo, "resourceDir", new File("checkstyle.xml"));
 
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertEquals("Configured resourceDir \"checkstyle.xml\" is not a directory.", thr.getMessage());
+    }
+
+
+    @Test
+    void testNoPropertyFiles(@TempDir final File projectBaseDir) throws MojoExecutionException, MojoFailureException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        // create target directory
+
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        mojo.execute();
+
+        mavenLog.assertContainsSubString("[info] No properties files found - no Java classes to generate");
+    }
+
+    @Test
+    void testOnePropertyFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.properties");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        mojo.execute();
+
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        mavenLog.assertContainsSubString("[debug] Generating constants for test.properties: de.r3s6.maven.Test");
+    }
+
+    @Test
+    void testXmlPropertyFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.xml" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.xml");
+
+        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
+            fos.println("<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">");
+            fos.println("<properties>");
+            fos.println("<entry key=\"test0001\">Hallo</entry>");
+            fos.println("</properties>");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        mojo.execute();
+
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        mavenLog.assertContainsSubString("[debug] Generating constants for test.xml: de.r3s6.maven.Test");
+    }
+
+    @Test
+    void testInvalidXmlPropertyFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.xml" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.xml");
+
+        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
+            fos.println("<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">");
+            fos.println("<properties>");
+            fos.println("<entry key=\"test0001\">Hallo</entry>");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().contains("test.xml[0:0] Error loading properties file:"), thr.getMessage());
+    }
+
+    @Test
+    void testCustomTemplateNotFound(@TempDir final File projectBaseDir) throws IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.properties");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "template", "does-not-exist.ftl");
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertEquals("Code template not found: does-not-exist.ftl", thr.getMessage());
+    }
+
+    @Test
+    void testInvalidCustomTemplate(@TempDir final File projectBaseDir) throws IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.properties");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        File templateFile = createFile(projectBaseDir, "invalid-template.ftl");
+        try (FileWriter fos = new FileWriter(templateFile)) {
+            fos.append("<#list entries as entry>");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "template", "invalid-template.ftl");
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().contains("Syntax error in template \"invalid-template.ftl\""), thr.getMessage());
+    }
+
+    @Test
+    void testInvalidTemplateModel() {
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "templateModel", "lazy");
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertEquals("Configured templateModel \"lazy\" is invalid. Use \"streaming\" or \"materialized\".",
+                thr.getMessage());
+    }
+
+    @Test
+    void testStreamingTemplateModel(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        String content = generateWithCustomTemplate(projectBaseDir, "streaming",
+                "${entries?size}:<#list entries as e>${e.key},</#list>:${properties[\"b.key\"]}:"
+                        + "<#list properties?keys as k>${k}=${properties[k]},</#list>");
+
+        assertEquals("3:a.key,b.key,c.key,:B:a.key=A,b.key=B,c.key=C,", content);
+    }
+
+    @Test
+    void testMaterializedTemplateModel(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        String content = generateWithCustomTemplate(projectBaseDir, "materialized",
+                "${entries?size}:${entries[1].key}:<#list entries?reverse as e>${e.key},</#list>:"
+                        + "${properties[\"b.key\"]}");
+
+        assertEquals("3:b.key:c.key,b.key,a.key,:B", content);
+    }
+
+    @Test
+    void testDefaultTemplateModel(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        String content = generateWithCustomTemplate(projectBaseDir, null,
+                "${entries[0].key}:${entries?first.value}:"
+                        + "<#list entries?sort_by(\"key\")?reverse as e>${e.key},</#list>");
+
+        assertEquals("a.key:A:c.key,b.key,a.key,", content);
+    }
+
+    private String generateWithCustomTemplate(final File projectBaseDir, final String templateModel,
+            final String template) throws MojoExecutionException, MojoFailureException, IOException {
+        return generateWithCustomTemplate(projectBaseDir, templateModel, template, "a.key=A\nb.key=B\nc.key=C\n");
+    }
+
+    private String generateWithCustomTemplate(final File projectBaseDir, final String templateModel,
+            final String template, final String properties)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        Files.write(propertyFile.toPath(), properties.getBytes(StandardCharsets.UTF_8));
+
+        File templateFile = createFile(projectBaseDir, "model-template.ftl");
+        Files.write(templateFile.toPath(), template.getBytes(StandardCharsets.UTF_8));
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "template", "model-template.ftl");
+        if (templateModel != null) {
+            inject(mojo, "templateModel", templateModel);
+        }
+
+        mojo.execute();
+
+        return new String(Files.readAllBytes(new File(tgtDir, "de/r3s6/maven/Test.java").toPath()),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testCannotCreateJavaFile(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        createDir(tgtDir, "de/r3s6/maven/Test.java");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        File propertyFile = createFile(resourceDir, "test.properties");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().matches(".*test.properties\\[0:0\\] Error generating Java file de.r3s6.maven.Test\\.java.*"), thr.getMessage());
+    }
+
+    @Test
+    void testDeletedPropertyFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties", "test2.properties" });
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File javaFile = createFile(projectBaseDir, "target/de/r3s6/maven/Test.java");
+        assertTrue(javaFile.isFile());
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        mojo.execute();
+
+        assertFalse(javaFile.exists());
+    }
+
+    @Test
+    void testCannotDeleteJavaFile(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File javaDir = createDir(projectBaseDir, "target/de/r3s6/maven/Test.java");
+        assertTrue(javaDir.isDirectory());
+        createFile(javaDir, "some-file");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().matches(".*Test.java\\[0:0\\] Could not delete:.*"), thr.getMessage());
+        assertTrue(javaDir.exists());
+    }
+
+    @Test
+    void testDuplicateClassname(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test-case.properties", "test_case.properties" });
+
+        // create target directory
+        File tgtDir = createDir(projectBaseDir, "target");
+
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test-case.properties");
+
+        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
+            fos.println("welcome.message=Hello there");
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().contains("test_case.properties[0:0] Would create same constant class de.r3s6.maven.TestCase as test-case.properties"), thr.getMessage());
+    }
+
+    @Test
+    void testDuplicateConstantName(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
+            fos.println("user.name=Name");
+            fos.println("user.id=Id");
+            fos.println("user_name=Other Name");
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().contains(
+                "test.properties[0:0] Key \"user_name\" would create same constant USER_NAME as key \"user.name\""),
+                thr.getMessage());
+        assertFalse(javaFile.exists());
+    }
+
+    @Test
+    void testReservedConstantName(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+
+        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
+            fos.println("properties.file.name=Name");
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        assertTrue(thr.getMessage().contains("test.properties[0:0] Key \"properties.file.name\" would create constant "
+                + "PROPERTIES_FILE_NAME, that is already generated for the properties file or bundle name"),
+                thr.getMessage());
+
+        // not generated
+        GenerateMojo noConstantMojo = createMojo("de.r3s6.maven");
+        inject(noConstantMojo, "outputDir", tgtDir);
+        inject(noConstantMojo, "resourceDir", resourceDir);
+        inject(noConstantMojo, "templateOptions", Collections.singletonMap("genPropertiesFilenameConstant", "false"));
+        noConstantMojo.execute();
+        assertTrue(new File(tgtDir, "de/r3s6/maven/Test.java").isFile());
+    }
+
+    @Test
+    void testDuplicateConstantNameCustomTemplate(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        String content = generateWithCustomTemplate(projectBaseDir, null, "<#list entries as e>${e.key},</#list>",
+                "user.name=Name\nuser_name=Other Name\n");
+
+        assertEquals("user.name,user_name,", content);
+    }
+
+    @Test
+    void testUnchangedJavaFile(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 0 unchanged");
+
+        FileTime oldTime = FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(javaFile.toPath(), oldTime);
+
+        mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 0 written, 1 unchanged");
+
+        assertEquals(oldTime, Files.getLastModifiedTime(javaFile.toPath()));
+    }
+
+    @Test
+    void testParallel(@TempDir final File projectBaseDir) throws IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(
+                new String[] { "a.properties", "b.properties", "c.properties", "d.properties", "e.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        for (String name : new String[] { "a", "c", "e" }) {
+            try (FileWriter fos = new FileWriter(createFile(resourceDir, name + ".properties"))) {
+                fos.append("welcome.message=Hello " + name);
+            }
+        }
+        for (String name : new String[] { "b", "d" }) {
+            try (FileWriter fos = new FileWriter(createFile(resourceDir, name + ".properties"))) {
+                fos.append("=invalid");
+            }
+        }
+
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", tgtDir);
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "parallel", true);
+        inject(mojo, "threads", 3);
+
+        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+
+        // errors are reported in the order of the requests
+        String[] lines = thr.getMessage().split("\n");
+        assertEquals(2, lines.length, thr.getMessage());
+        assertTrue(lines[0].contains("b.properties[1:0] Properties file"), lines[0]);
+        assertTrue(lines[1].contains("d.properties[1:0] Properties file"), lines[1]);
+
+        mavenLog.assertContainsSubString("[info] Java files: 3 written, 0 unchanged");
+        for (String name : new String[] { "A", "C", "E" }) {
+            assertTrue(new File(tgtDir, "de/r3s6/maven/" + name + ".java").isFile(), name);
+        }
+    }
+
+    @Test
+    void testIncremental(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        }
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(javaFile.isFile());
+        assertTrue(new File(stateDir, "test-exec-manifest.properties").isFile());
+
+        // nothing changed
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] All 1 Java constant class up to date");
+
+        // template option changed
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "templateOptions", Collections.singletonMap("genBundleNameConstant", "true"));
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8).contains("BUNDLE_NAME"));
+
+        // properties file changed
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there\nfarewell.message=Bye");
+        }
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8)
+                .contains("FAREWELL_MESSAGE"));
+
+        // java file deleted
+        Files.delete(javaFile.toPath());
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(javaFile.isFile());
+    }
+
+    @Test
+    void testIncrementalIncludedTemplate(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+        File includedFile = createDir(projectBaseDir, "templates").toPath().resolve("included.ftl").toFile();
+        Files.write(new File(projectBaseDir, "templates/custom.ftl").toPath(),
+                "package ${packageName};\n<#include \"included.ftl\">\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(includedFile.toPath(), "// first\n".getBytes(StandardCharsets.UTF_8));
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "templates/custom.ftl");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(new File(stateDir, "test-exec-templates.properties").isFile());
+
+        // nothing changed
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "templates/custom.ftl");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] All 1 Java constant class up to date");
+
+        // included template changed
+        Files.write(includedFile.toPath(), "// second\n".getBytes(StandardCharsets.UTF_8));
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "templates/custom.ftl");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Template templates/included.ftl changed, generating all Java files");
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        assertTrue(new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8).contains("// second"));
+
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "templates/custom.ftl");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] All 1 Java constant class up to date");
+    }
+
+    @Test
+    void testOrphanedJavaFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties", "other.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        createFile(resourceDir, "other.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+        File otherJavaFile = new File(tgtDir, "de/r3s6/maven/Other.java");
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        assertTrue(javaFile.isFile());
+        assertTrue(otherJavaFile.isFile());
+
+        // other.properties deleted
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Deleted orphaned Java file de/r3s6/maven/Other.java");
+        assertTrue(javaFile.isFile());
+        assertFalse(otherJavaFile.exists());
+
+        // class suffix configured
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "classNameSuffix", "Const");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Deleted orphaned Java file de/r3s6/maven/Test.java");
+        assertFalse(javaFile.exists());
+        assertTrue(new File(tgtDir, "de/r3s6/maven/TestConst.java").isFile());
+    }
+
+    @Test
+    void testDeltaScanKeepsJavaFiles(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties", "other.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        createFile(resourceDir, "other.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+        File otherJavaFile = new File(tgtDir, "de/r3s6/maven/Other.java");
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        assertTrue(otherJavaFile.isFile());
+
+        // the IDE only reports the changed test.properties
+        when(buildContext.isIncremental()).thenReturn(true);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertNotContainsSubString("Deleted orphaned");
+        assertTrue(javaFile.isFile());
+        assertTrue(otherJavaFile.isFile());
+
+        // the manifest still knows other.properties
+        when(buildContext.isIncremental()).thenReturn(false);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties", "other.properties" });
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] All 2 Java constant classes up to date");
+    }
+
+    @Test
+    void testOrphanedJavaFileOfOtherExecution(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+
+        // the same Java file is generated by another execution
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "executionId", "other-exec");
+        mojo.execute();
+
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        assertTrue(javaFile.isFile());
+    }
+
+    @Test
+    void testPartClasses(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
+
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
+
+        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        StringBuilder props = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            props.append("key").append(i).append("=value ").append(i).append('\n');
+        }
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append(props);
+        }
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 5 written, 0 unchanged");
+
+        String mainContent = new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8);
+        assertFalse(mainContent.contains("KEY0"), mainContent);
+        // all constants are accessed through the main class
+        assertTrue(mainContent.contains("public final class Test implements\n        TestPart0,\n        TestPart1,\n"
+                + "        TestPart2,\n        TestPart3 {\n"), mainContent);
+        StringBuilder allParts = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            File partFile = new File(tgtDir, "de/r3s6/maven/TestPart" + i + ".java");
+            String content = new String(Files.readAllBytes(partFile.toPath()), StandardCharsets.UTF_8);
+            assertTrue(content.contains("\ninterface TestPart" + i + " {"), content);
+            allParts.append(content);
+        }
+        for (int i = 0; i < 10; i++) {
+            String constant = "String KEY" + i + " = ";
+            int idx = allParts.indexOf(constant);
+            assertTrue(idx >= 0, constant);
+            assertEquals(-1, allParts.indexOf(constant, idx + 1), constant);
+        }
+
+        // only the part class with the changed key is written
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append(props.toString().replace("value 3", "changed value"));
+        }
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 4 unchanged");
+
+        // a deleted part class is generated again
+        File part0 = new File(tgtDir, "de/r3s6/maven/TestPart0.java");
+        Files.delete(part0.toPath());
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 4 unchanged");
+        assertTrue(part0.isFile());
 
-        assertEquals("Configured resourceDir \"checkstyle.xml\" is not a directory.", thr.getMessage());
+        // part classes no longer needed
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Deleted orphaned Java file de/r3s6/maven/TestPart0.java");
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 0 unchanged");
+        assertFalse(part0.exists());
+        assertTrue(new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8).contains("KEY0"));
     }
 
-
     @Test
-    void testNoPropertyFiles(@TempDir final File projectBaseDir) throws MojoExecutionException, MojoFailureException {
+    void testUnchangedPartClassesNotRendered(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
         when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
-
-        // create target directory
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
         File tgtDir = createDir(projectBaseDir, "target");
-
+        File stateDir = createDir(projectBaseDir, "state");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File partCacheFile = new File(stateDir, "test-exec-parts/de/r3s6/maven/Test.java.parts");
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
+        StringBuilder props = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            props.append("key").append(i).append("=value ").append(i).append('\n');
+        }
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append(props);
+        }
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        mavenLog.assertNotContainsSubString("Unchanged part class");
+        assertTrue(partCacheFile.isFile());
+
+        // only the part class with the changed key is rendered
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append(props.toString().replace("value 3", "changed value"));
+        }
+        int changedPart = BuiltinTemplateEmitter.partIndex("key3", 4);
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 4 unchanged");
+        for (int i = 0; i < 4; i++) {
+            File partFile = new File(tgtDir, "de/r3s6/maven/TestPart" + i + ".java");
+            String message = "[debug] Unchanged part class: " + partFile;
+            if (i == changedPart) {
+                mavenLog.assertNotContainsSubString(message);
+            } else {
+                mavenLog.assertContainsSubString(message);
+            }
+        }
+
+        // same content as without incremental build
+        File fullDir = createDir(projectBaseDir, "full");
+        mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", fullDir);
         inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        mojo.execute();
+        for (int i = 0; i < 4; i++) {
+            String name = "de/r3s6/maven/TestPart" + i + ".java";
+            assertEquals(new String(Files.readAllBytes(new File(fullDir, name).toPath()), StandardCharsets.UTF_8),
+                    new String(Files.readAllBytes(new File(tgtDir, name).toPath()), StandardCharsets.UTF_8), name);
+        }
 
+        // other template option renders all part classes
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "maxKeysPerClass", 4);
+        inject(mojo, "templateOptions", Collections.singletonMap("genBundleNameConstant", "true"));
         mojo.execute();
+        mavenLog.assertNotContainsSubString("Unchanged part class");
 
-        mavenLog.assertContainsSubString("[info] No properties files found - no Java classes to generate");
+        // part classes no longer needed
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        mojo.execute();
+        assertFalse(partCacheFile.exists());
     }
 
     @Test
-    void testOnePropertyFiles(@TempDir final File projectBaseDir)
+    void testPartCount() {
+        GenerateMojo mojo = createMojo("pkg");
+        assertEquals(1, mojo.partCount(100_000, 10_000_000));
+
+        inject(mojo, "maxKeysPerClass", 100);
+        assertEquals(1, mojo.partCount(100, 0));
+        assertEquals(2, mojo.partCount(101, 0));
+        assertEquals(4, mojo.partCount(301, 0));
+        assertEquals(8, mojo.partCount(500, 0));
+
+        inject(mojo, "maxSourceSize", 1000);
+        assertEquals(1, mojo.partCount(10, 1000));
+        assertEquals(16, mojo.partCount(10, 9001));
+        assertEquals(8, mojo.partCount(800, 1000));
+    }
+
+    @Test
+    void testPartIndex() {
+        for (String key : new String[] { "a", "welcome.message", "some.other.key" }) {
+            assertEquals(0, BuiltinTemplateEmitter.partIndex(key, 1));
+            int idx = BuiltinTemplateEmitter.partIndex(key, 4);
+            assertTrue(idx >= 0 && idx < 4, key);
+            // doubling the part count keeps the key in the same or the new part
+            int idx8 = BuiltinTemplateEmitter.partIndex(key, 8);
+            assertTrue(idx8 == idx || idx8 == idx + 4, key);
+        }
+    }
+
+    @Test
+    void testExternalValues(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
@@ -147,34 +1125,39 @@ class GenerateMojoTest {
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
         when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
-
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
+        File stateDir = createDir(projectBaseDir, "state");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
-
         File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+        File valuesFile = new File(tgtDir, "de/r3s6/maven/Test.values");
 
         try (FileWriter fos = new FileWriter(propertyFile)) {
-            fos.append("welcome.message=Hello there");
-        } catch (IOException e) {
-            fail(e.getMessage());
+            fos.append("short=Hello\nlong=Hello there, this is a long value");
         }
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
-
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "values");
+        inject(mojo, "templateOptions", Collections.singletonMap("maxConstantValueSize", "10"));
         mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 0 unchanged");
 
-        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
-        mavenLog.assertContainsSubString("[debug] Generating constants for test.properties: de.r3s6.maven.Test");
+        String code = new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(code.contains("String SHORT = \"Hello\";"), code);
+        assertTrue(code.contains("public static String getLong() {"), code);
+        assertTrue(valuesFile.isFile());
+        verify(mavenProject).addResource(any(Resource.class));
+
+        // value no longer externalized
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "values");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Deleted orphaned file de/r3s6/maven/Test.values");
+        assertFalse(valuesFile.exists());
     }
 
     @Test
-    void testXmlPropertyFiles(@TempDir final File projectBaseDir)
+    void testEnumTemplate(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
@@ -182,39 +1165,33 @@ class GenerateMojoTest {
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.xml" });
-
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
+        File stateDir = createDir(projectBaseDir, "state");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
 
-        File propertyFile = createFile(resourceDir, "test.xml");
-
-        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
-            fos.println("<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">");
-            fos.println("<properties>");
-            fos.println("<entry key=\"test0001\">Hallo</entry>");
-            fos.println("</properties>");
-        } catch (IOException e) {
-            fail(e.getMessage());
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
         }
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
-
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "enum");
         mojo.execute();
+        String code = new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(code.contains("public enum Test {"), code);
+        assertTrue(code.contains("    WELCOME_MESSAGE(\"welcome.message\");"), code);
 
-        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
-        mavenLog.assertContainsSubString("[debug] Generating constants for test.xml: de.r3s6.maven.Test");
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "enum");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] All 1 Java constant class up to date");
     }
 
     @Test
-    void testInvalidXmlPropertyFiles(@TempDir final File projectBaseDir)
+    void testEnumTemplateNotSplit(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
@@ -222,34 +1199,34 @@ class GenerateMojoTest {
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.xml" });
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
+        File stateDir = createDir(projectBaseDir, "state");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
 
-        File propertyFile = createFile(resourceDir, "test.xml");
-
-        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
-            fos.println("<!DOCTYPE properties SYSTEM \"http://java.sun.com/dtd/properties.dtd\">");
-            fos.println("<properties>");
-            fos.println("<entry key=\"test0001\">Hallo</entry>");
-        } catch (IOException e) {
-            fail(e.getMessage());
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("key.one=One\nkey.two=Two\nkey.three=Three\nkey.four=Four\nkey.five=Five\n");
         }
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
-
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "template", "enum");
+        inject(mojo, "maxKeysPerClass", 2);
+        mojo.execute();
 
-        assertTrue(thr.getMessage().contains("test.xml[0:0] Error loading properties file:"), thr.getMessage());
+        String code = new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(code.contains("public enum Test {"), code);
+        for (String constant : new String[] { "KEY_ONE", "KEY_TWO", "KEY_THREE", "KEY_FOUR", "KEY_FIVE" }) {
+            assertTrue(code.contains("    " + constant + "("), code);
+        }
+        assertFalse(new File(tgtDir, "de/r3s6/maven/TestPart0.java").exists());
+        assertFalse(new File(tgtDir, "de/r3s6/maven/TestPart1.java").exists());
     }
 
     @Test
-    void testCustomTemplateNotFound(@TempDir final File projectBaseDir) throws IOException {
+    void testEnumTemplateTooManyKeys(@TempDir final File projectBaseDir) throws IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
         when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
@@ -258,78 +1235,65 @@ class GenerateMojoTest {
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
         when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
-
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
-
         File propertyFile = createFile(resourceDir, "test.properties");
 
         try (FileWriter fos = new FileWriter(propertyFile)) {
-            fos.append("welcome.message=Hello there");
-        } catch (IOException e) {
-            fail(e.getMessage());
+            for (int i = 0; i <= BuiltinTemplateEmitter.MAX_ENUM_CONSTANTS; i++) {
+                fos.append("key").append(String.valueOf(i)).append("=value\n");
+            }
         }
 
         GenerateMojo mojo = createMojo("de.r3s6.maven");
         inject(mojo, "outputDir", tgtDir);
         inject(mojo, "resourceDir", resourceDir);
-        inject(mojo, "template", "does-not-exist.ftl");
-
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
-
-        assertEquals("Code template not found: does-not-exist.ftl", thr.getMessage());
+        inject(mojo, "template", "enum");
+        MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+        assertEquals("Properties file test.properties has 3001 keys, but the template enum supports at most 3000"
+                + " keys, as the static initializer of an enum is limited to 64 KB. Use the template keys with"
+                + " maxKeysPerClass instead.", e.getMessage());
+        assertFalse(new File(tgtDir, "de/r3s6/maven/Test.java").exists());
     }
 
     @Test
-    void testInvalidCustomTemplate(@TempDir final File projectBaseDir) throws IOException {
+    void testBundleTemplate(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
         when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
-
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
+        when(propertiesScanner.getIncludedFiles())
+                .thenReturn(new String[] { "messages.properties", "messages_de.properties" });
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
-
-        File propertyFile = createFile(resourceDir, "test.properties");
-
-        try (FileWriter fos = new FileWriter(propertyFile)) {
-            fos.append("welcome.message=Hello there");
-        } catch (IOException e) {
-            fail(e.getMessage());
+        try (FileWriter fos = new FileWriter(createFile(resourceDir, "messages.properties"))) {
+            fos.append("welcome.message=Hello");
         }
-
-        File templateFile = createFile(projectBaseDir, "invalid-template.ftl");
-        try (FileWriter fos = new FileWriter(templateFile)) {
-            fos.append("<#list entries as entry>");
-        } catch (IOException e) {
-            fail(e.getMessage());
+        try (FileWriter fos = new FileWriter(createFile(resourceDir, "messages_de.properties"))) {
+            fos.append("welcome.message=Hallo");
         }
 
-
         GenerateMojo mojo = createMojo("de.r3s6.maven");
         inject(mojo, "outputDir", tgtDir);
         inject(mojo, "resourceDir", resourceDir);
-        inject(mojo, "template", "invalid-template.ftl");
-
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
-
-        assertTrue(thr.getMessage().contains("Syntax error in template \"invalid-template.ftl\""), thr.getMessage());
+        inject(mojo, "template", "bundle");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Java files: 2 written, 0 unchanged");
+
+        String code = new String(Files.readAllBytes(new File(tgtDir, "de/r3s6/maven/Messages_de.java").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(code.contains("public final class Messages_de extends java.util.ListResourceBundle {"), code);
+        assertTrue(code.contains("{ \"welcome.message\", \"Hallo\" },"), code);
+        assertTrue(code.contains("ResourceBundle.getBundle(\"de.r3s6.maven.Messages\", locale)"), code);
+        assertTrue(new File(tgtDir, "de/r3s6/maven/Messages.java").isFile());
     }
 
     @Test
-    void testCannotCreateJavaFile(@TempDir final File projectBaseDir)
+    void testMergeLocales(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
@@ -337,95 +1301,161 @@ class GenerateMojoTest {
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+        when(propertiesScanner.getIncludedFiles()).thenReturn(
+                new String[] { "messages_de.properties", "messages.properties", "messages_fr.properties" });
 
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
-
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        try (FileWriter fos = new FileWriter(createFile(resourceDir, "messages.properties"))) {
+            fos.append("welcome.message=Hello\nfarewell.message=Bye");
+        }
+        try (FileWriter fos = new FileWriter(createFile(resourceDir, "messages_de.properties"))) {
+            fos.append("welcome.message=Hallo\nfarewell.message=Tschuess\nde.only=Nur deutsch");
+        }
+        File frFile = createFile(resourceDir, "messages_fr.properties");
+        try (FileWriter fos = new FileWriter(frFile)) {
+            fos.append("welcome.message=Bonjour");
+        }
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Messages.java");
 
-        createDir(tgtDir, "de/r3s6/maven/Test.java");
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "mergeLocales", true);
+        inject(mojo, "parallel", true);
+        inject(mojo, "template", "values");
+        mojo.execute();
 
-        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        mavenLog.assertContainsSubString("[info] Java files: 1 written, 0 unchanged");
+        mavenLog.assertContainsSubString(
+                "messages_de.properties: Contains 1 key(s) not in messages.properties: de.only");
+        mavenLog.assertContainsSubString(
+                "messages_fr.properties: Missing 1 key(s) of messages.properties: farewell.message");
 
-        File propertyFile = createFile(resourceDir, "test.properties");
+        String code = new String(Files.readAllBytes(javaFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(code.contains("String WELCOME_MESSAGE = \"Hello\";"), code);
+        assertTrue(code.contains("String FAREWELL_MESSAGE = \"Bye\";"), code);
+        assertTrue(code.contains("String DE_ONLY = \"Nur deutsch\";"), code);
 
-        try (FileWriter fos = new FileWriter(propertyFile)) {
-            fos.append("welcome.message=Hello there");
-        } catch (IOException e) {
-            fail(e.getMessage());
+        // changed locale variant
+        try (FileWriter fos = new FileWriter(frFile)) {
+            fos.append("welcome.message=Bonjour\nfarewell.message=Au revoir");
         }
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "mergeLocales", true);
+        inject(mojo, "template", "values");
+        mojo.execute();
+        mavenLog.assertContainsSubString("[info] Generating 1 Java constant class");
+        mavenLog.assertNotContainsSubString("messages_fr.properties: Missing");
+    }
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
+    @Test
+    void testCommandLineScan(@TempDir final File projectBaseDir)
+            throws MojoExecutionException, MojoFailureException, IOException {
 
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
 
-        assertTrue(thr.getMessage().matches(".*test.properties\\[0:0\\] Error generating Java file de.r3s6.maven.Test\\.java.*"), thr.getMessage());
+        File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        createFile(resourceDir, "i18n/messages.properties");
+        createFile(resourceDir, "i18n/old/legacy.properties");
+        createFile(resourceDir, "i18n/readme.txt");
+
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "buildContext", new DefaultBuildContext());
+        inject(mojo, "includes", new String[] { "**/*.properties" });
+        inject(mojo, "excludes", new String[] { "i18n/old/" });
+        mojo.execute();
+
+        mavenLog.assertContainsSubString("[info] Generating 2 Java constant classes");
+        assertTrue(new File(tgtDir, "de/r3s6/maven/Test.java").isFile());
+        assertTrue(new File(tgtDir, "de/r3s6/maven/i18n/Messages.java").isFile());
+        assertFalse(new File(tgtDir, "de/r3s6/maven/i18n/old/Legacy.java").exists());
     }
 
     @Test
-    void testDeletedPropertyFiles(@TempDir final File projectBaseDir)
+    void testFailedScanKeepsJavaFiles(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
-        when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
-        when(deleteScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties", "test2.properties" });
-
-        when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+        DefaultBuildContext commandLineContext = new DefaultBuildContext();
+        commandLineContext.enableLogging(new ConsoleLogger(Logger.LEVEL_DISABLED, "test"));
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
+        File stateDir = createDir(projectBaseDir, "state");
+        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
 
-        File javaFile = createFile(projectBaseDir, "target/de/r3s6/maven/Test.java");
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "buildContext", commandLineContext);
+        mojo.execute();
         assertTrue(javaFile.isFile());
 
-        File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        // the resource directory vanishes after the configuration was checked
+        assertTrue(propertyFile.delete());
+        assertTrue(resourceDir.delete());
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "buildContext", commandLineContext);
+        mojo.scanAll();
+        mojo.finishPass();
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
+        assertFalse(mojo.takeErrorMessages().isEmpty());
+        mavenLog.assertNotContainsSubString("Deleted orphaned");
+        assertTrue(javaFile.isFile());
 
+        // the manifest still knows the Java file
+        createDir(projectBaseDir, "src/main/resources");
+        createFile(resourceDir, "test.properties");
+        mavenLog.reset();
+        mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "buildContext", commandLineContext);
         mojo.execute();
-
-        assertFalse(javaFile.exists());
+        mavenLog.assertContainsSubString("[info] All 1 Java constant class up to date");
     }
 
     @Test
-    void testCannotDeleteJavaFile(@TempDir final File projectBaseDir)
+    void testReport(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
         when(buildContext.newDeleteScanner(any(File.class))).thenReturn(deleteScanner);
-        when(deleteScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
+        when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[0]);
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
-        File javaDir = createDir(projectBaseDir, "target/de/r3s6/maven/Test.java");
-        assertTrue(javaDir.isDirectory());
-        createFile(javaDir, "some-file");
-
+        File stateDir = createDir(projectBaseDir, "state");
+        File reportDir = new File(projectBaseDir, "report");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
+        File propertyFile = createFile(resourceDir, "test.properties");
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
+        try (FileWriter fos = new FileWriter(propertyFile)) {
+            fos.append("welcome.message=Hello there");
+        }
 
-        MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "report", true);
+        inject(mojo, "reportDir", reportDir);
+        mojo.execute();
 
-        assertTrue(thr.getMessage().matches(".*Test.java\\[0:0\\] Could not delete:.*"), thr.getMessage());
-        assertTrue(javaDir.exists());
+        mavenLog.assertContainsSubString("[info] Timing: ");
+        mavenLog.assertContainsSubString(", parse ");
+        String json = new String(Files.readAllBytes(new File(reportDir, "test-exec-report.json").toPath()),
+                StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"executionId\": \"test-exec\""), json);
+        assertTrue(json.contains("\"requests\": 1,"), json);
+        assertTrue(json.contains("\"propertiesFile\": \"test.properties\""), json);
+        assertTrue(json.contains("\"className\": \"de.r3s6.maven.Test\""), json);
+        assertTrue(json.contains("\"render\": { \"nanos\": "), json);
+        assertTrue(json.contains("\"fingerprint\": { \"nanos\": "), json);
+        mavenLog.assertContainsSubString(", fingerprint ");
     }
 
     @Test
-    void testDuplicateClassname(@TempDir final File projectBaseDir)
+    void testNoReportByDefault(@TempDir final File projectBaseDir)
             throws MojoExecutionException, MojoFailureException, IOException {
 
         when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
@@ -433,30 +1463,29 @@ class GenerateMojoTest {
         when(deleteScanner.getIncludedFiles()).thenReturn(new String[0]);
 
         when(buildContext.newScanner(any(File.class))).thenReturn(propertiesScanner);
-        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test-case.properties", "test_case.properties" });
-
-        when(buildContext.newFileOutputStream(any(File.class)))
-                .thenAnswer(i -> new FileOutputStream((File) i.getArguments()[0]));
+        when(propertiesScanner.getIncludedFiles()).thenReturn(new String[] { "test.properties" });
 
-        // create target directory
         File tgtDir = createDir(projectBaseDir, "target");
-
+        File stateDir = createDir(projectBaseDir, "state");
+        File reportDir = new File(projectBaseDir, "report");
         File resourceDir = createDir(projectBaseDir, "src/main/resources");
-        File propertyFile = createFile(resourceDir, "test-case.properties");
+        createFile(resourceDir, "test.properties");
 
-        try (PrintWriter fos = new PrintWriter(new FileWriter(propertyFile))) {
-            fos.println("welcome.message=Hello there");
-        } catch (IOException e) {
-            fail(e.getMessage());
-        }
+        GenerateMojo mojo = createIncrementalMojo(tgtDir, resourceDir, stateDir);
+        inject(mojo, "reportDir", reportDir);
+        mojo.execute();
 
-        GenerateMojo mojo = createMojo("de.r3s6.maven");
-        inject(mojo, "outputDir", tgtDir);
-        inject(mojo, "resourceDir", resourceDir);
+        mavenLog.assertNotContainsSubString("Timing: ");
+        assertFalse(reportDir.exists());
+    }
 
+    @Test
+    void testInvalidMaxConstantValueSize() {
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "template", "values");
+        inject(mojo, "templateOptions", Collections.singletonMap("maxConstantValueSize", "huge"));
         MojoExecutionException thr = assertThrows(MojoExecutionException.class, () -> mojo.execute());
-
-        assertTrue(thr.getMessage().contains("test_case.properties[0:0] Would create same constant class de.r3s6.maven.TestCase as test-case.properties"), thr.getMessage());
+        assertEquals("Template option maxConstantValueSize is not a number: huge", thr.getMessage());
     }
 
     @Test
@@ -633,6 +1662,7 @@ class GenerateMojoTest {
 
         GeneratorRequest gr = mojo.buildGeneratorRequest("test/test_en.properties");
         assertEquals("test/test_en.properties", gr.getPropertiesFileName());
+        assertEquals("en", gr.getLocale());
         assertEquals("test.test", gr.getBundleName());
         assertEquals("pkg.test.Test", gr.getFullClassName());
         assertEquals("pkg.test", gr.getPackageName());
@@ -644,6 +1674,7 @@ class GenerateMojoTest {
 
         gr = mojo.buildGeneratorRequest("test/test_en_US.properties");
         assertEquals("test/test_en_US.properties", gr.getPropertiesFileName());
+        assertEquals("en_US", gr.getLocale());
         assertEquals("test.test", gr.getBundleName());
         assertEquals("pkg.test.Test", gr.getFullClassName());
         assertEquals("pkg.test", gr.getPackageName());
@@ -684,6 +1715,25 @@ class GenerateMojoTest {
         assertTrue(gr.isXmlProperties());
     }
 
+    @Test
+    void testBuildGeneratorRequestBundle() throws MojoExecutionException, MojoFailureException {
+        GenerateMojo mojo = createMojo("pkg");
+
+        inject(mojo, "outputDir", new File("output-dir"));
+        inject(mojo, "resourceDir", new File("input-dir"));
+        inject(mojo, "template", "bundle");
+
+        GeneratorRequest gr = mojo.buildGeneratorRequest("test/test_en_US.properties");
+        assertEquals("test.test", gr.getBundleName());
+        assertEquals("en_US", gr.getLocale());
+        assertEquals("pkg.test.Test_en_US", gr.getFullClassName());
+        assertEquals("pkg/test/Test_en_US.java", gr.getJavaFileName());
+
+        gr = mojo.buildGeneratorRequest("test/test.properties");
+        assertEquals("", gr.getLocale());
+        assertEquals("pkg.test.Test", gr.getFullClassName());
+    }
+
     @Test
     void testRemoveResourceBundleLocale()
     {
@@ -714,6 +1764,24 @@ class GenerateMojoTest {
         return mojo;
     }
 
+    /**
+     * Create GenerateMojo for incremental builds.
+     *
+     * @param outputDir   the output directory
+     * @param resourceDir the resource directory
+     * @param stateDir    the directory for the generation manifest
+     * @return the configured Mojo
+     */
+    private GenerateMojo createIncrementalMojo(final File outputDir, final File resourceDir, final File stateDir) {
+        GenerateMojo mojo = createMojo("de.r3s6.maven");
+        inject(mojo, "outputDir", outputDir);
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "incremental", true);
+        inject(mojo, "stateDir", stateDir);
+        inject(mojo, "executionId", "test-exec");
+        return mojo;
+    }
+
     /**
      * Inject a value into a field of an object.
      *
@@ -0,0 +1,143 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GenerationManifestTest {
+
+    @Test
+    void testStoreAndLoad(@TempDir final File tempDir) throws IOException {
+        File javaFile = new File(tempDir, "Test.java");
+        javaFile.createNewFile();
+        GeneratorRequest gr = request("test.properties", javaFile);
+
+        File manifestFile = new File(tempDir, "state/manifest.properties");
+        GenerationManifest manifest = new GenerationManifest(manifestFile);
+        manifest.load();
+        assertEquals(0, manifest.size());
+        assertFalse(manifest.isUpToDate(gr, "abc"));
+
+        manifest.update(gr, "abc");
+        manifest.store();
+        assertTrue(manifestFile.isFile());
+
+        manifest = new GenerationManifest(manifestFile);
+        manifest.load();
+        assertEquals(1, manifest.size());
+        assertTrue(manifest.isUpToDate(gr, "abc"));
+        assertFalse(manifest.isUpToDate(gr, "def"));
+        assertFalse(manifest.isUpToDate(gr, null));
+    }
+
+    @Test
+    void testMissingJavaFile(@TempDir final File tempDir) {
+        GeneratorRequest gr = request("test.properties", new File(tempDir, "Test.java"));
+
+        GenerationManifest manifest = new GenerationManifest(new File(tempDir, "manifest.properties"));
+        manifest.update(gr, "abc");
+        assertFalse(manifest.isUpToDate(gr, "abc"));
+    }
+
+    @Test
+    void testRemoveAndRetain(@TempDir final File tempDir) {
+        GeneratorRequest gr1 = request("test1.properties", new File(tempDir, "Test1.java"));
+        GeneratorRequest gr2 = request("test2.properties", new File(tempDir, "Test2.java"));
+
+        GenerationManifest manifest = new GenerationManifest(new File(tempDir, "manifest.properties"));
+        manifest.update(gr1, "abc");
+        manifest.update(gr2, "def");
+        assertEquals(2, manifest.size());
+
+        manifest.retain(Collections.singleton(gr2));
+        assertEquals(1, manifest.size());
+    }
+
+    @Test
+    void testInvalidate(@TempDir final File tempDir) throws IOException {
+        File javaFile = new File(tempDir, "Test.java");
+        javaFile.createNewFile();
+        GeneratorRequest gr = request("test.properties", javaFile);
+
+        GenerationManifest manifest = new GenerationManifest(new File(tempDir, "manifest.properties"));
+        manifest.update(gr, "abc");
+        assertTrue(manifest.isUpToDate(gr, "abc"));
+
+        manifest.invalidate(gr);
+        assertFalse(manifest.isUpToDate(gr, "abc"));
+        assertEquals(Collections.singleton("Test.java"), manifest.getJavaFileNames());
+
+        manifest.update(gr, null);
+        assertFalse(manifest.isUpToDate(gr, null));
+        assertEquals(Collections.singleton("Test.java"), manifest.getJavaFileNames());
+    }
+
+    @Test
+    void testFindOrphans(@TempDir final File tempDir) {
+        GeneratorRequest gr1 = request("test1.properties", new File(tempDir, "Test1.java"));
+        GeneratorRequest gr2 = request("test2.properties", new File(tempDir, "Test2.java"));
+        GeneratorRequest gr2Renamed = request("test2.properties", new File(tempDir, "Renamed.java"));
+
+        GenerationManifest manifest = new GenerationManifest(new File(tempDir, "manifest.properties"));
+        manifest.update(gr1, "abc");
+        manifest.update(gr2, "def");
+
+        assertEquals(Collections.emptySet(), manifest.findOrphans(Arrays.asList(gr1, gr2)));
+        assertEquals(Collections.singleton("Test2.java"), manifest.findOrphans(Arrays.asList(gr1)));
+        assertEquals(Collections.singleton("Test2.java"), manifest.findOrphans(Arrays.asList(gr1, gr2Renamed)));
+        assertEquals(new HashSet<>(Arrays.asList("Test1.java", "Test2.java")),
+                manifest.findOrphans(Collections.emptyList()));
+    }
+
+    @Test
+    void testMultipleJavaFiles(@TempDir final File tempDir) throws IOException {
+        File javaFile = new File(tempDir, "Test.java");
+        File partFile = new File(tempDir, "TestPart0.java");
+        javaFile.createNewFile();
+        partFile.createNewFile();
+        GeneratorRequest gr = request("test.properties", javaFile);
+
+        GenerationManifest manifest = new GenerationManifest(new File(tempDir, "manifest.properties"));
+        assertEquals(Collections.emptySet(),
+                manifest.update(gr, "abc", Arrays.asList("Test.java", "TestPart0.java", "TestPart1.java")));
+        assertFalse(manifest.isUpToDate(gr, "abc"));
+
+        new File(tempDir, "TestPart1.java").createNewFile();
+        assertTrue(manifest.isUpToDate(gr, "abc"));
+        assertEquals(Collections.emptySet(), manifest.findOrphans(Collections.singleton(gr)));
+
+        assertEquals(new HashSet<>(Arrays.asList("TestPart0.java", "TestPart1.java")),
+                manifest.update(gr, "def", Collections.singleton("Test.java")));
+        assertEquals(Collections.singleton("Test.java"), manifest.getJavaFileNames());
+    }
+
+    private static GeneratorRequest request(final String propertiesFileName, final File javaFile) {
+        return new GeneratorRequest.Builder().className("pkg." + javaFile.getName().replace(".java", ""))
+                .propertiesFileName(propertiesFileName).javaFileName(javaFile.getName()).javaFile(javaFile)
+                .build();
+    }
+}
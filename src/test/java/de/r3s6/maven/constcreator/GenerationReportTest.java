@@ -0,0 +1,98 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.r3s6.maven.constcreator.PhaseTimer.Phase;
+
+class GenerationReportTest {
+
+    @Test
+    void testQuote() {
+        assertEquals("\"plain\"", GenerationReport.quote("plain"));
+        assertEquals("\"a\\\"b\\\\c\"", GenerationReport.quote("a\"b\\c"));
+        assertEquals("\"\\n\\r\\t\\u0001\"", GenerationReport.quote("\n\r\t\u0001"));
+        assertEquals("\"ä\"", GenerationReport.quote("ä"));
+    }
+
+    @Test
+    void testTotals() {
+        GenerationReport report = new GenerationReport("default");
+        PhaseTimer timer = new PhaseTimer();
+        timer.start();
+        timer.stop(Phase.SCAN);
+        report.addExecution(timer);
+
+        GenerationResult result = new GenerationResult(request("a.properties", "pkg.A"));
+        result.getTimer().start();
+        result.getTimer().stop(Phase.PARSE);
+        report.addResult(result);
+
+        assertEquals(timer.getNanos(Phase.SCAN), report.getTotals().getNanos(Phase.SCAN));
+        assertEquals(result.getTimer().getNanos(Phase.PARSE), report.getTotals().getNanos(Phase.PARSE));
+        assertEquals(timer.getTotalNanos() + result.getTimer().getTotalNanos(), report.getTotals().getTotalNanos());
+        assertEquals(1, report.getSlowest().size());
+    }
+
+    @Test
+    void testWrite(@TempDir final File tempDir) throws IOException {
+        GenerationReport report = new GenerationReport("default");
+        for (int i = 0; i < 12; i++) {
+            report.addResult(new GenerationResult(request("file" + i + ".properties", "pkg.File" + i)));
+        }
+        report.finish();
+        assertEquals(10, report.getSlowest().size());
+
+        File file = new File(tempDir, "report/default-report.json");
+        report.write(file);
+
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\n  \"executionId\": \"default\",\n"), json);
+        assertTrue(json.contains("  \"requests\": 12,\n"), json);
+        assertTrue(json.contains("    \"scan\": { \"nanos\": 0, \"bytes\": 0 },\n"), json);
+        assertTrue(json.contains("      \"propertiesFile\": \"file0.properties\",\n"), json);
+        assertTrue(json.endsWith("  ]\n}\n"), json);
+    }
+
+    @Test
+    void testWriteEmpty(@TempDir final File tempDir) throws IOException {
+        GenerationReport report = new GenerationReport("default");
+        report.finish();
+
+        File file = new File(tempDir, "default-report.json");
+        report.write(file);
+
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(json.contains("  \"requests\": 0,\n"), json);
+        assertTrue(json.endsWith("  \"slowest\": []\n}\n"), json);
+    }
+
+    private static GeneratorRequest request(final String propertiesFileName, final String className) {
+        return new GeneratorRequest.Builder().className(className).propertiesFileName(propertiesFileName)
+                .javaFileName(className.replace('.', '/') + ".java").javaFile(new File(className + ".java"))
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.Version;
+
+class ModelObjectWrapperTest {
+
+    private static final Version VERSION = new Version("2.3.32");
+
+    private final ModelObjectWrapper wrapper = new ModelObjectWrapper(VERSION);
+
+    @Test
+    void testPropEntry() throws Exception {
+        assertInstanceOf(ModelObjectWrapper.PropEntryModel.class, wrapper.wrap(new PropEntry("a", "b")));
+
+        String result = render("<#list entries as e>${e.key}|${e.value}|${e.javadocKey}|${e.javadocValue}|"
+                + "${e.javaKey}|${e.javaValue}|${e.constantName}|${e.variableName}|${e.getterName}</#list>",
+                Collections.singletonList(new PropEntry("first.name", "<\"Joe\">")));
+
+        assertEquals("first.name|<\"Joe\">|first.name|&lt;\"Joe\"&gt;|first.name|<\\\"Joe\\\">|FIRST_NAME|"
+                + "firstName|getFirstName", result);
+    }
+
+    @Test
+    void testPropEntryBeanFallback() throws Exception {
+        String result = render("<#list entries as e>${e.getKey()}:${e.getConstantName()}</#list>",
+                Collections.singletonList(new PropEntry("first.name", "Joe")));
+
+        assertEquals("first.name:FIRST_NAME", result);
+    }
+
+    @Test
+    void testPropEntryKeys() throws Exception {
+        String result = render("<#list entries as e>${e?keys?seq_contains(\"constantName\")?c}:${(e?size > 0)?c}:"
+                + "<#list e as k, v><#if k == \"key\">${v}</#if></#list></#list>",
+                Collections.singletonList(new PropEntry("first.name", "Joe")));
+
+        assertEquals("true:true:first.name", result);
+    }
+
+    @Test
+    void testUnknownName() {
+        assertThrows(TemplateException.class, () -> render("<#list entries as e>${e.unknown}</#list>",
+                Collections.singletonList(new PropEntry("first.name", "Joe"))));
+    }
+
+    @Test
+    void testEntryList() throws Exception {
+        List<PropEntry> entries = Arrays.asList(new PropEntry("a", "1"), new PropEntry("b", "2"),
+                new PropEntry("c", "3"));
+        assertInstanceOf(ModelObjectWrapper.EntryListModel.class, wrapper.wrapEntries(entries));
+
+        String result = render("${entries?size}:${entries[1].key}:<#list entries?reverse as e>${e.key}</#list>:"
+                + "<#list entries?chunk(2) as c>${c?size}</#list>", entries);
+
+        assertEquals("3:b:cba:21", result);
+    }
+
+    @Test
+    void testEntryCollection() throws Exception {
+        Map<String, PropEntry> map = new LinkedHashMap<>();
+        map.put("a", new PropEntry("a", "1"));
+        map.put("b", new PropEntry("b", "2"));
+        assertInstanceOf(ModelObjectWrapper.EntryCollectionModel.class, wrapper.wrapEntries(map.values()));
+
+        String result = render("${entries?size}:<#list entries as e>${e.key}=${e.value},</#list>"
+                + "<#list entries as e>${e?index}</#list>", map.values());
+
+        assertEquals("2:a=1,b=2,01", result);
+    }
+
+    @Test
+    void testRequestMetadata() throws Exception {
+        String result = render("${packageName}|${simpleClassName}|${fullClassName}|${propertiesFileName}|"
+                + "${javaFileName}|${bundleName}|${isXmlProperties?c}|${locale}|${options.opt}|"
+                + "<#list .data_model?keys as k>${k},</#list>", Collections.emptyList());
+
+        assertEquals("de.r3s6.test|Messages_de|de.r3s6.test.Messages_de|de/r3s6/test/messages_de.properties|"
+                + "de/r3s6/test/Messages_de.java|de.r3s6.test.messages|false|de|value|"
+                + "packageName,simpleClassName,fullClassName,propertiesFileName,javaFileName,bundleName,"
+                + "isXmlProperties,locale,entries,options,", result);
+    }
+
+    private String render(final String template, final Collection<PropEntry> entries)
+            throws IOException, TemplateException {
+        Configuration cfg = new Configuration(VERSION);
+        cfg.setObjectWrapper(wrapper);
+        Template tmpl = new Template("test", new StringReader(template), cfg);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("entries", wrapper.wrapEntries(entries));
+        Map<String, String> options = new HashMap<>();
+        options.put("opt", "value");
+        values.put("options", options);
+
+        StringWriter sw = new StringWriter();
+        tmpl.process(wrapper.wrapRequest(genRequest(), values), sw);
+        return sw.toString();
+    }
+
+    private static GeneratorRequest genRequest() {
+        GeneratorRequest.Builder b = new GeneratorRequest.Builder();
+        b.className("de.r3s6.test.Messages_de");
+        b.javaFileName("de/r3s6/test/Messages_de.java");
+        b.javaFile(new File("de/r3s6/test/Messages_de.java"));
+        b.propertiesFileName("de/r3s6/test/messages_de.properties");
+        b.propertiesFile(new File("de/r3s6/test/messages_de.properties"));
+        b.xmlProperties(false);
+        b.bundleName("de.r3s6.test.messages");
+        b.locale("de");
+        return b.build();
+    }
+}
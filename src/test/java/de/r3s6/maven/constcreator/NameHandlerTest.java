@@ -16,8 +16,11 @@ package de.r3s6.maven.constcreator;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -96,4 +99,53 @@ class NameHandlerTest {
         assertEquals("name must not be null", ex.getMessage());
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        "käse.kuchen",
+        "große.zahl",
+        "Üßer",
+        "İstanbul",
+        "ΣΟΣ.Σ",
+        "emoji😀key",
+        })
+    void testNonAscii(final String key) {
+        assertNull(NameHandler.createAsciiJavaNames(key));
+        JavaNames names = NameHandler.createJavaNames(key);
+        JavaNames expected = NameHandler.createUnicodeJavaNames(key);
+        assertEquals(expected.getConstantName(), names.getConstantName());
+        assertEquals(expected.getVariableName(), names.getVariableName());
+        assertEquals(expected.getGetterName(), names.getGetterName());
+    }
+
+    @Test
+    void testAsciiSameAsUnicode() {
+        StringBuilder sb = new StringBuilder();
+        // all ASCII chars alone and in combination with a letter
+        for (char c = 0; c < 128; c++) {
+            assertSameNames(String.valueOf(c));
+            assertSameNames("a" + c + "b");
+            assertSameNames("A" + c + "B");
+            assertSameNames(c + "x");
+        }
+
+        Random random = new Random(4711);
+        String chars = "aAbBzZ09_.-$%@ \t\u0000\u007f";
+        for (int i = 0; i < 10_000; i++) {
+            sb.setLength(0);
+            int len = 1 + random.nextInt(20);
+            for (int j = 0; j < len; j++) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            assertSameNames(sb.toString());
+        }
+    }
+
+    private static void assertSameNames(final String key) {
+        JavaNames expected = NameHandler.createUnicodeJavaNames(key);
+        JavaNames names = NameHandler.createJavaNames(key);
+        assertEquals(expected.getConstantName(), names.getConstantName(), key);
+        assertEquals(expected.getVariableName(), names.getVariableName(), key);
+        assertEquals(expected.getGetterName(), names.getGetterName(), key);
+    }
+
 }
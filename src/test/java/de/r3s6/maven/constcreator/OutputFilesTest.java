@@ -0,0 +1,82 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OutputFilesTest {
+
+    private static final byte[] CONTENT = "class Test {}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testNewFile(@TempDir final Path tempDir) throws IOException {
+        Path file = tempDir.resolve("pkg/Test.java");
+
+        assertTrue(OutputFiles.writeIfChanged(file, CONTENT));
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+        assertNoTempFiles(file.getParent());
+    }
+
+    @Test
+    void testUnchangedFile(@TempDir final Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Test.java");
+        Files.write(file, CONTENT);
+        FileTime oldTime = FileTime.fromMillis(1_000_000_000L);
+        Files.setLastModifiedTime(file, oldTime);
+
+        assertFalse(OutputFiles.writeIfChanged(file, CONTENT));
+        assertEquals(oldTime, Files.getLastModifiedTime(file));
+    }
+
+    @Test
+    void testChangedFile(@TempDir final Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Test.java");
+        Files.write(file, "class Test { }".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(OutputFiles.writeIfChanged(file, CONTENT));
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+        assertNoTempFiles(tempDir);
+    }
+
+    @Test
+    void testDirectory(@TempDir final Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Test.java");
+        Files.createDirectory(file);
+
+        assertThrows(FileSystemException.class, () -> OutputFiles.writeIfChanged(file, CONTENT));
+    }
+
+    private static void assertNoTempFiles(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
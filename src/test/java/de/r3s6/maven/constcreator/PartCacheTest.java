@@ -0,0 +1,84 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PartCacheTest {
+
+    @Test
+    void testStoreAndLoad(@TempDir final File tempDir) throws IOException {
+        File cacheFile = new File(tempDir, "state/Test.java.parts");
+        PartCache cache = new PartCache(cacheFile);
+        cache.load();
+        assertFalse(cache.isUnchanged("TestPart0.java", "abc"));
+
+        cache.update("TestPart0.java", "abc");
+        cache.update("TestPart1.java", "def");
+        cache.store();
+        assertTrue(cacheFile.isFile());
+
+        cache = new PartCache(cacheFile);
+        cache.load();
+        assertTrue(cache.isUnchanged("TestPart0.java", "abc"));
+        assertTrue(cache.isUnchanged("TestPart1.java", "def"));
+        assertFalse(cache.isUnchanged("TestPart1.java", "abc"));
+        assertFalse(cache.isUnchanged("TestPart2.java", "abc"));
+    }
+
+    @Test
+    void testOnlyUpdatedPartsStored(@TempDir final File tempDir) throws IOException {
+        File cacheFile = new File(tempDir, "Test.java.parts");
+        PartCache cache = new PartCache(cacheFile);
+        cache.update("TestPart0.java", "abc");
+        cache.update("TestPart1.java", "def");
+        cache.store();
+
+        // part 1 was not processed
+        cache = new PartCache(cacheFile);
+        cache.load();
+        cache.update("TestPart0.java", "abc");
+        cache.store();
+
+        cache = new PartCache(cacheFile);
+        cache.load();
+        assertTrue(cache.isUnchanged("TestPart0.java", "abc"));
+        assertFalse(cache.isUnchanged("TestPart1.java", "def"));
+    }
+
+    @Test
+    void testNotWrittenIfUnchanged(@TempDir final File tempDir) throws IOException {
+        File cacheFile = new File(tempDir, "Test.java.parts");
+        PartCache cache = new PartCache(cacheFile);
+        cache.update("TestPart0.java", "abc");
+        cache.store();
+        assertTrue(cacheFile.setLastModified(1_000_000L));
+
+        cache = new PartCache(cacheFile);
+        cache.load();
+        cache.update("TestPart0.java", "abc");
+        cache.store();
+        assertEquals(1_000_000L, cacheFile.lastModified());
+    }
+}
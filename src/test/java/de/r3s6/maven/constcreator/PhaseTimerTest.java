@@ -0,0 +1,62 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.r3s6.maven.constcreator.PhaseTimer.Phase;
+
+class PhaseTimerTest {
+
+    @Test
+    void testMeasure() throws InterruptedException {
+        PhaseTimer timer = new PhaseTimer();
+        timer.start();
+        Thread.sleep(2);
+        timer.stop(Phase.RENDER);
+
+        assertTrue(timer.getNanos(Phase.RENDER) > 0);
+        assertEquals(0, timer.getNanos(Phase.PARSE));
+        assertEquals(timer.getNanos(Phase.RENDER), timer.getTotalNanos());
+
+        PhaseTimer sum = new PhaseTimer();
+        sum.add(timer);
+        sum.add(timer);
+        assertEquals(2 * timer.getNanos(Phase.RENDER), sum.getNanos(Phase.RENDER));
+    }
+
+    @Test
+    void testDisabled() throws InterruptedException {
+        PhaseTimer timer = PhaseTimer.disabled();
+        assertSame(timer, PhaseTimer.disabled());
+
+        timer.start();
+        Thread.sleep(2);
+        timer.stop(Phase.RENDER);
+
+        PhaseTimer other = new PhaseTimer();
+        other.start();
+        other.stop(Phase.PARSE);
+        timer.add(other);
+
+        assertEquals(0, timer.getTotalNanos());
+        assertEquals(0, timer.getTotalBytes());
+    }
+}
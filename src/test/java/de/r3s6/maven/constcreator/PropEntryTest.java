@@ -16,6 +16,7 @@ package de.r3s6.maven.constcreator;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -117,6 +118,48 @@ class PropEntryTest {
         assertEquals("&lt;b&gt; &amp;#64; * {&#64;code hello} &#42;/", entry.getJavadocValue());
     }
 
+    @Test
+    void testEscapeJavadoc() {
+        String text = "nothing to escape: {} * / @";
+        assertSame(text, PropEntry.escapeJavadoc(text));
+        assertEquals("", PropEntry.escapeJavadoc(""));
+
+        // same result as replacing one after the other
+        String[] samples = { "&", "<>", "a&b", "{@", "{{@@", "*/", "**/", "*//", "{@*/", "&amp;", "x{@link y}*/z",
+            "{", "*", "end{" };
+        for (String sample : samples) {
+            String expected = sample.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                    .replace("{@", "{&#64;").replace("*/", "&#42;/");
+            assertEquals(expected, PropEntry.escapeJavadoc(sample), sample);
+        }
+    }
+
+    @Test
+    void testEscapeJava() {
+        String text = "nothing to escape: ' \u20ac \ud83d\ude00";
+        assertSame(text, PropEntry.escapeJava(text));
+        assertEquals("", PropEntry.escapeJava(""));
+
+        assertEquals("a\\\"b\\\\c\\n\\r\\t\\f\\b\\u0000\\u001f",
+                PropEntry.escapeJava("a\"b\\c\n\r\t\f\b\u0000\u001f"));
+        assertEquals("del\\u007f c1\\u0085\\u009f nbsp\u00a0",
+                PropEntry.escapeJava("del\u007f c1\u0085\u009f nbsp\u00a0"));
+
+        // unpaired surrogates
+        assertEquals("\\ud800x", PropEntry.escapeJava("\ud800x"));
+        assertEquals("x\\udc00", PropEntry.escapeJava("x\udc00"));
+        assertEquals("\\ud83d\ud83d\ude00\\ude00", PropEntry.escapeJava("\ud83d\ud83d\ude00\ude00"));
+        assertEquals("x\\ud83d", PropEntry.escapeJava("x\ud83d"));
+    }
+
+    @Test
+    void testJavaKeyAndValue() {
+        PropEntry entry = new PropEntry("a\"key", "plain");
+        assertEquals("a\\\"key", entry.getJavaKey());
+        assertSame(entry.getJavaKey(), entry.getJavaKey());
+        assertSame(entry.getValue(), entry.getJavaValue());
+    }
+
     @Test
     void testEmptyKeyException() {
         InvalidPropertyKeyException thr = assertThrows(InvalidPropertyKeyException.class,
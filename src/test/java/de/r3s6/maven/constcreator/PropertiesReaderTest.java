@@ -0,0 +1,138 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PropertiesReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOrderAndLines() throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (PropertiesReader reader = new PropertiesReader(Paths.get("src/test/resources/test-props.properties"))) {
+            while (reader.next()) {
+                keys.add(reader.getKey() + "@" + reader.getLine());
+            }
+            assertNull(reader.getKey());
+            assertNull(reader.getValue());
+        }
+        assertEquals(10, keys.size());
+        assertEquals("test0001@16", keys.get(0));
+        assertEquals("test0010@25", keys.get(9));
+    }
+
+    @Test
+    void testLinesWithContinuation() throws IOException {
+        Path file = write("# comment\r\n\r\n  a = 1\\\r\n   2\rb:\\\n\n c 3\n\n\n! comment\\\nd=4");
+        List<String> result = new ArrayList<>();
+        try (PropertiesReader reader = new PropertiesReader(file)) {
+            while (reader.next()) {
+                result.add(reader.getKey() + "=" + reader.getValue() + "@" + reader.getLine());
+            }
+        }
+        assertEquals("[a=12@3, b=@5, c=3@7, d=4@11]", result.toString());
+    }
+
+    @Test
+    void testSameAsProperties() throws IOException {
+        assertSameAsProperties("key=value\nkey2 = value2 \n\tkey3\tvalue3\n");
+        assertSameAsProperties("a:b\nc=d=e\nf:g:h\ni j k\nl\nm=\n=n\n:o\n p \n");
+        assertSameAsProperties("key\\ with\\ blanks = v\\\n    continued \\\n  and more\n");
+        assertSameAsProperties("k\\=ey = va\\:lue\\=\nk2\\:=v\\\\\nk3=v\\\\\\\nnext\n");
+        assertSameAsProperties("esc=\\t\\n\\r\\f\\a\\b\\\"\\'\\#\\!\nuni=\\u00e4\\u00F6\\u20ac\\uD83D\\uDE00\n");
+        assertSameAsProperties("# comment\n! comment\n  # indented comment\n#comment \\\nnot=continued\n");
+        assertSameAsProperties("a=1\r\nb=2\rc=3\n\r\nd=4\\\r\n  5\\\r  6\\\n  7");
+        assertSameAsProperties("dup=1\nother=2\ndup=3\n");
+        assertSameAsProperties("endsWithBackslash=abc\\");
+        assertSameAsProperties("blank.continuation=\\\n\nnext=1\n");
+        assertSameAsProperties("latin1=\u00e4\u00f6\u00fc\u00df\u00ff\n");
+        assertSameAsProperties("");
+        assertSameAsProperties("\n\n   \n\t\f\n");
+        assertSameAsProperties("\\\n#notcomment=1\n");
+    }
+
+    @Test
+    void testLargeFile() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            sb.append("key.").append(i).append(" = value number ").append(i).append(" \\\n   continued\n");
+        }
+        assertSameAsProperties(sb.toString());
+    }
+
+    @Test
+    void testMalformedUnicode() throws IOException {
+        Path file = write("a=1\n\nb=\\u00g0\n");
+        try (PropertiesReader reader = new PropertiesReader(file)) {
+            assertTrue(reader.next());
+            PropertiesParseException thr = assertThrows(PropertiesParseException.class, reader::next);
+            assertEquals(3, thr.getLine());
+            assertEquals("Malformed \\uxxxx encoding.", thr.getMessage());
+        }
+
+        file = write("a=1\n\nb=\\u00");
+        try (PropertiesReader reader = new PropertiesReader(file)) {
+            assertTrue(reader.next());
+            PropertiesParseException thr = assertThrows(PropertiesParseException.class, reader::next);
+            assertEquals(3, thr.getLine());
+            assertFalse(reader.next());
+        }
+    }
+
+    private void assertSameAsProperties(final String content) throws IOException {
+        Properties expected = new OrderedProperties();
+        expected.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1)));
+        Map<String, String> expectedMap = new LinkedHashMap<>();
+        for (Object key : expected.keySet()) {
+            expectedMap.put((String) key, expected.getProperty((String) key));
+        }
+
+        Map<String, String> actualMap = new LinkedHashMap<>();
+        try (PropertiesReader reader = new PropertiesReader(write(content))) {
+            while (reader.next()) {
+                actualMap.put(reader.getKey(), reader.getValue());
+            }
+        }
+
+        assertEquals(new ArrayList<>(expectedMap.entrySet()), new ArrayList<>(actualMap.entrySet()), content);
+    }
+
+    private Path write(final String content) throws IOException {
+        return Files.write(tempDir.resolve("test.properties"), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
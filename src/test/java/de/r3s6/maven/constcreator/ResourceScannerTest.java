@@ -0,0 +1,148 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ResourceScannerTest {
+
+    private static final List<String> FILES = Arrays.asList("test.properties", "test.xml", "other.txt",
+            "i18n/messages.properties", "i18n/messages_de.properties", "i18n/de/more.properties",
+            "sub/dir/deep.properties", "sub/dir/deep.txt", "sub/a.properties", "abc/x.properties",
+            "target/ignored.properties");
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "*.properties;",
+        "**/*.properties;",
+        "i18n/*.properties;",
+        "i18n/**;",
+        "i18n/;",
+        "**/messages*.properties;",
+        "sub/**/*.properties;",
+        "**/dir/**;",
+        "a?c/*.properties;",
+        "**;",
+        "**/*.properties;target/**",
+        "**/*.properties;**/de/**",
+        "**/*.properties;i18n/messages_*",
+        "*.properties,**/*.txt;sub/dir/",
+        "**/*;%regex[.*_de\\.properties]",
+        "%regex[sub/.*\\.properties];",
+    })
+    void testSameAsDirectoryScanner(final String includes, final String excludes, @TempDir final Path baseDir)
+            throws IOException {
+        createFiles(baseDir);
+
+        String[] incl = includes.split(",");
+        String[] excl = excludes == null ? null : excludes.split(",");
+
+        DirectoryScanner ds = new DirectoryScanner();
+        ds.setBasedir(baseDir.toFile());
+        ds.setIncludes(incl);
+        ds.setExcludes(excl);
+        ds.scan();
+        Set<String> expected = Arrays.stream(ds.getIncludedFiles()).map(f -> f.replace(File.separatorChar, '/'))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        Set<String> actual = new TreeSet<>(new ResourceScanner(baseDir, incl, excl).scan());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testNoIncludes(@TempDir final Path baseDir) throws IOException {
+        createFiles(baseDir);
+        assertEquals(FILES.size(), new ResourceScanner(baseDir, null, null).scan().size());
+        assertEquals(FILES.size(), new ResourceScanner(baseDir, new String[0], null).scan().size());
+    }
+
+    @Test
+    void testCouldHoldIncluded() {
+        ResourceScanner scanner = new ResourceScanner(new File(".").toPath(),
+                new String[] { "*.properties", "i18n/*.properties", "a/**/b/*.xml" }, null);
+
+        assertTrue(scanner.couldHoldIncluded("i18n"));
+        assertFalse(scanner.couldHoldIncluded("i18n/de"));
+        assertFalse(scanner.couldHoldIncluded("sub"));
+        assertTrue(scanner.couldHoldIncluded("a"));
+        assertTrue(scanner.couldHoldIncluded("a/x/y"));
+
+        assertTrue(new ResourceScanner(new File(".").toPath(), new String[] { "**/*.properties" }, null)
+                .couldHoldIncluded("any/dir"));
+        assertTrue(new ResourceScanner(new File(".").toPath(), new String[] { "%regex[x]" }, null)
+                .couldHoldIncluded("any/dir"));
+    }
+
+    @Test
+    void testIsExcludedCompletely() {
+        ResourceScanner scanner = new ResourceScanner(new File(".").toPath(), null,
+                new String[] { "target/**", "**/generated/", "*.txt" });
+
+        assertTrue(scanner.isExcludedCompletely("target"));
+        assertTrue(scanner.isExcludedCompletely("a/b/generated"));
+        assertTrue(scanner.isExcludedCompletely("generated"));
+        assertFalse(scanner.isExcludedCompletely("target/sub"));
+        assertFalse(scanner.isExcludedCompletely("src"));
+
+        assertTrue(new ResourceScanner(new File(".").toPath(), null, new String[] { "**" })
+                .isExcludedCompletely("any"));
+    }
+
+    @Test
+    void testIsIncluded() {
+        ResourceScanner scanner = new ResourceScanner(new File(".").toPath(), new String[] { "**\\*.properties" },
+                new String[] { "**/test*" });
+
+        assertTrue(scanner.isIncluded("a.properties"));
+        assertTrue(scanner.isIncluded("a/b/c.properties"));
+        assertFalse(scanner.isIncluded("a/b/test.properties"));
+        assertFalse(scanner.isIncluded("a.xml"));
+    }
+
+    @Test
+    void testMissingBaseDir(@TempDir final Path tempDir) {
+        assertThrows(IOException.class,
+                () -> new ResourceScanner(tempDir.resolve("missing"), null, null).scan());
+    }
+
+    private static void createFiles(final Path baseDir) throws IOException {
+        for (final String file : FILES) {
+            Path path = baseDir.resolve(file);
+            Files.createDirectories(path.getParent());
+            Files.createFile(path);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import freemarker.template.TemplateException;
+
+class TemplateDependenciesTest {
+
+    @Test
+    void testRecordedWhileProcessing(@TempDir final File tempDir) throws IOException, TemplateException {
+        write(tempDir, "main.ftl", "<#import \"lib.ftl\" as lib><#include \"header.ftl\">${lib.text}");
+        write(tempDir, "lib.ftl", "<#assign text=\"lib\">");
+        write(tempDir, "header.ftl", "header ");
+
+        TemplateHandler handler = new TemplateHandler(tempDir, "UTF-8");
+        assertTrue(handler.getDependencies("main.ftl").isEmpty());
+
+        StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            handler.process("main.ftl", Collections.emptyMap(), pw);
+        }
+        assertEquals("header lib", sw.toString());
+        assertEquals("[header.ftl, lib.ftl]", handler.getDependencies("main.ftl").toString());
+    }
+
+    @Test
+    void testFindChanged(@TempDir final File tempDir) throws IOException {
+        File depFile = new File(tempDir, "state/test-templates.properties");
+        write(tempDir, "a.ftl", "a");
+        write(tempDir, "b.ftl", "b");
+        TemplateHandler handler = new TemplateHandler(tempDir, "UTF-8");
+
+        TemplateDependencies dependencies = new TemplateDependencies(depFile);
+        dependencies.load();
+        dependencies.update(handler, Arrays.asList("a.ftl", "b.ftl"));
+        dependencies.store();
+        assertTrue(depFile.isFile());
+
+        dependencies = new TemplateDependencies(depFile);
+        dependencies.load();
+        assertNull(dependencies.findChanged(handler));
+
+        write(tempDir, "b.ftl", "changed");
+        assertEquals("b.ftl", dependencies.findChanged(handler));
+
+        // a deleted template counts as changed and is dropped
+        Files.delete(new File(tempDir, "a.ftl").toPath());
+        assertEquals("a.ftl", dependencies.findChanged(handler));
+        dependencies.update(handler, Collections.emptyList());
+        assertNull(dependencies.findChanged(handler));
+        dependencies.store();
+
+        // without dependencies the file is deleted
+        Files.delete(new File(tempDir, "b.ftl").toPath());
+        dependencies.update(handler, Collections.emptyList());
+        dependencies.store();
+        assertFalse(depFile.exists());
+    }
+
+    private static void write(final File dir, final String name, final String content) throws IOException {
+        Files.write(new File(dir, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -16,18 +16,24 @@ package de.r3s6.maven.constcreator;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import freemarker.template.TemplateException;
 
@@ -81,6 +87,44 @@ class TemplateHandlerTest {
         assertEquals("dir-does-not-exist does not exist.", thr.getMessage());
     }
 
+    @Test
+    void testConfigurationCached() {
+        File basedir =  new File("src/test/resources/test-basedir");
+
+        TemplateHandler th1 = new TemplateHandler(basedir, UTF8);
+        TemplateHandler th2 = new TemplateHandler(basedir.getAbsoluteFile(), UTF8);
+        TemplateHandler th3 = new TemplateHandler(basedir, "ISO-8859-1");
+        TemplateHandler th4 = new TemplateHandler(new File("."), UTF8);
+
+        assertSame(th1.getConfiguration("custom-template.ftl"), th2.getConfiguration("custom-template.ftl"));
+        assertNotSame(th1.getConfiguration("custom-template.ftl"), th3.getConfiguration("custom-template.ftl"));
+        assertNotSame(th1.getConfiguration("custom-template.ftl"), th4.getConfiguration("custom-template.ftl"));
+
+        // built-in templates are shared between projects
+        assertSame(th1.getConfiguration("plugin-default-templates/keys-template.ftl"),
+                th4.getConfiguration("plugin-default-templates/keys-template.ftl"));
+    }
+
+    @Test
+    void testChangedTemplate(@TempDir final File basedir) throws IOException, TemplateException {
+        File tmplFile = new File(basedir, "changing.ftl");
+        Files.write(tmplFile.toPath(), "${firstName}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(tmplFile.toPath(), FileTime.fromMillis(1_000_000_000L));
+
+        StringOutputStream os = new StringOutputStream();
+        PrintWriter pw = new PrintWriter(os);
+
+        new TemplateHandler(basedir, UTF8).process("changing.ftl", model, pw);
+        assertEquals("Luke", os.toString());
+        os.reset();
+
+        Files.write(tmplFile.toPath(), "${lastName}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(tmplFile.toPath(), FileTime.fromMillis(2_000_000_000L));
+
+        new TemplateHandler(basedir, UTF8).process("changing.ftl", model, pw);
+        assertEquals("Skywalker", os.toString());
+    }
+
     private static class StringOutputStream extends OutputStream {
         private StringBuilder sb = new StringBuilder();
 
@@ -74,6 +74,18 @@ class TestMavenLog implements Log {
         throw new AssertionError(sb.toString());
     }
 
+    public void assertNotContainsSubString(final String text) {
+
+        for (String string : lines) {
+            if(string.contains(text)) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("Substring \"" + text + "\" found in output:\n");
+                sb.append(String.join("\n", lines));
+                throw new AssertionError(sb.toString());
+            }
+        }
+    }
+
 
     @Override
     public boolean isDebugEnabled() {
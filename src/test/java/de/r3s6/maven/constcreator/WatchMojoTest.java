@@ -0,0 +1,249 @@
+package de.r3s6.maven.constcreator;
+/*
+ * Copyright 2023 Ralf Schandl
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+@ExtendWith(MockitoExtension.class)
+class WatchMojoTest {
+
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    @Mock
+    private MavenProject mavenProject;
+
+    private TestMavenLog mavenLog = new TestMavenLog();
+
+    @Test
+    void testWatch(@TempDir final File projectBaseDir) throws Exception {
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+
+        File tgtDir = new File(projectBaseDir, "target");
+        File resourceDir = new File(projectBaseDir, "src/main/resources");
+        resourceDir.mkdirs();
+        File propertyFile = new File(resourceDir, "test.properties");
+        write(propertyFile, "welcome.message=Hello\n");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+        File otherJavaFile = new File(tgtDir, "de/r3s6/maven/i18n/Other.java");
+
+        WatchMojo mojo = createMojo(projectBaseDir, resourceDir, tgtDir);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread watcher = new Thread(() -> {
+            try {
+                mojo.execute();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "watcher");
+        watcher.start();
+        try {
+            waitFor(() -> javaFile.isFile());
+            waitFor(() -> read(javaFile).contains("WELCOME_MESSAGE"));
+
+            // modified properties file: only its class is generated again
+            write(propertyFile, "welcome.message=Hello\ngoodbye.message=Bye\n");
+            waitFor(() -> read(javaFile).contains("GOODBYE_MESSAGE"));
+
+            // new directory and properties file: rescan
+            File otherFile = new File(resourceDir, "i18n/other.properties");
+            otherFile.getParentFile().mkdirs();
+            write(otherFile, "other=value\n");
+            waitFor(() -> otherJavaFile.isFile());
+        } finally {
+            mojo.stop();
+            watcher.join(TIMEOUT_MILLIS);
+        }
+
+        assertFalse(watcher.isAlive());
+        assertNull(failure.get());
+    }
+
+    @Test
+    void testErrorsDontStopWatching(@TempDir final File projectBaseDir) throws Exception {
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+
+        File tgtDir = new File(projectBaseDir, "target");
+        File resourceDir = new File(projectBaseDir, "src/main/resources");
+        resourceDir.mkdirs();
+        File propertyFile = new File(resourceDir, "test.properties");
+        write(propertyFile, "welcome.message=Hello\n");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        WatchMojo mojo = createMojo(projectBaseDir, resourceDir, tgtDir);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread watcher = new Thread(() -> {
+            try {
+                mojo.execute();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "watcher");
+        watcher.start();
+        try {
+            waitFor(() -> javaFile.isFile());
+
+            // invalid properties file, then valid again
+            write(propertyFile, "welcome.message=Hello\\uZZZZ\n");
+            FileTime before = Files.getLastModifiedTime(javaFile.toPath());
+            Thread.sleep(500);
+            assertEquals(before, Files.getLastModifiedTime(javaFile.toPath()));
+
+            write(propertyFile, "welcome.message=Hello\ngoodbye.message=Bye\n");
+            waitFor(() -> read(javaFile).contains("GOODBYE_MESSAGE"));
+        } finally {
+            mojo.stop();
+            watcher.join(TIMEOUT_MILLIS);
+        }
+
+        assertFalse(watcher.isAlive());
+        assertNull(failure.get());
+        mavenLog.assertContainsSubString("[error] Generation failed:");
+    }
+
+    @Test
+    void testTemplateErrorsDontStopWatching(@TempDir final File projectBaseDir) throws Exception {
+        when(mavenProject.getBasedir()).thenReturn(projectBaseDir);
+
+        File tgtDir = new File(projectBaseDir, "target");
+        File resourceDir = new File(projectBaseDir, "src/main/resources");
+        resourceDir.mkdirs();
+        write(new File(resourceDir, "test.properties"), "welcome.message=Hello\n");
+        File templateFile = new File(projectBaseDir, "custom.ftl");
+        write(templateFile, "// first<#list entries as e> ${e.key}</#list>\n");
+        File javaFile = new File(tgtDir, "de/r3s6/maven/Test.java");
+
+        WatchMojo mojo = createMojo(projectBaseDir, resourceDir, tgtDir);
+        inject(mojo, "template", "custom.ftl");
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread watcher = new Thread(() -> {
+            try {
+                mojo.execute();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "watcher");
+        watcher.start();
+        try {
+            waitFor(() -> read(javaFile).contains("// first welcome.message"));
+
+            // template with syntax error, then valid again
+            write(templateFile, "<#list entries as e>\n");
+            Thread.sleep(500);
+            assertTrue(watcher.isAlive());
+
+            write(templateFile, "// second<#list entries as e> ${e.key}</#list>\n");
+            waitFor(() -> read(javaFile).contains("// second welcome.message"));
+        } finally {
+            mojo.stop();
+            watcher.join(TIMEOUT_MILLIS);
+        }
+
+        assertFalse(watcher.isAlive());
+        assertNull(failure.get());
+        mavenLog.assertContainsSubString("[error] Generation failed: ");
+    }
+
+    private WatchMojo createMojo(final File projectBaseDir, final File resourceDir, final File outputDir) {
+        WatchMojo mojo = new WatchMojo();
+        inject(mojo, "project", mavenProject);
+        DefaultBuildContext buildContext = new DefaultBuildContext();
+        buildContext.enableLogging(new ConsoleLogger(Logger.LEVEL_DISABLED, "test"));
+        inject(mojo, "buildContext", buildContext);
+        inject(mojo, "basePackage", "de.r3s6.maven");
+        inject(mojo, "classNameSuffix", "");
+        inject(mojo, "sourceEncoding", "UTF-8");
+        inject(mojo, "includes", new String[] { "**/*.properties" });
+        inject(mojo, "resourceDir", resourceDir);
+        inject(mojo, "outputDir", outputDir);
+        inject(mojo, "templateOptions", new HashMap<String, String>());
+        inject(mojo, "incremental", true);
+        inject(mojo, "stateDir", new File(projectBaseDir, "target/state"));
+        inject(mojo, "executionId", "watch");
+        inject(mojo, "debounce", 50L);
+        mojo.setLog(mavenLog);
+        return mojo;
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < end, "Timeout waiting for generation");
+            Thread.sleep(20);
+        }
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String read(final File file) {
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Inject a value into a field of an object or one of its super classes.
+     *
+     * @param target    the target object
+     * @param fieldName name of the field to set
+     * @param value     the value to assign
+     */
+    private static void inject(final Object target, final String fieldName, final Object value) {
+        for (Class<?> cls = target.getClass(); cls != null; cls = cls.getSuperclass()) {
+            try {
+                Field field = cls.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // try super class
+            } catch (IllegalAccessException e) {
+                throw new AssertionError("Error setting " + fieldName, e);
+            }
+        }
+        throw new AssertionError("No field " + fieldName);
+    }
+}